@@ -0,0 +1,65 @@
+package com.cuius.mcpserver.benchmark;
+
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+import com.cuius.mcpserver.service.FixedPointFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering the {@code %.2f} fields of one page of quotes: prices, market caps, volumes and
+ * percent changes taken from the synthetic fixture. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecimalFormatBenchmark {
+    private static final int COINS = 500;
+
+    private double[] values;
+    private final StringBuilder sb = new StringBuilder(64 * 1024);
+
+    @Setup
+    public void setUp() {
+        values = new double[COINS * 4];
+        int i = 0;
+        for (CryptoCurrency crypto : ListingsFixture.generate(COINS, 42L)) {
+            Quote quote = crypto.getQuote().get("USD");
+            values[i++] = quote.getPrice();
+            values[i++] = quote.getMarketCap();
+            values[i++] = quote.getVolume24h();
+            values[i++] = quote.getPercentChange24h();
+        }
+    }
+
+    @Benchmark
+    public int stringFormat() {
+        sb.setLength(0);
+        for (double value : values) {
+            sb.append(String.format("%.2f", value)).append('\n');
+        }
+        return sb.length();
+    }
+
+    @Benchmark
+    public int fixedPoint() {
+        sb.setLength(0);
+        for (double value : values) {
+            FixedPointFormat.appendTwoDecimals(sb, value).append('\n');
+        }
+        return sb.length();
+    }
+}
@@ -0,0 +1,110 @@
+package com.cuius.mcpserver.benchmark;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.dto.CoinMarketCapResponse;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.service.ListingsStreamDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a listings payload into a published snapshot: buffered deserialization of
+ * {@link CoinMarketCapResponse}, the streaming decoder fed in network-sized chunks, and snapshot build,
+ * both from scratch and as a delta of the previous snapshot after two coins swapped ranks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestionBenchmark {
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"10", "500", "5000"})
+    private int cacheSize;
+
+    private ObjectMapper objectMapper;
+    private ListingsStreamDecoder streamDecoder;
+    private List<CryptoCurrency> listings;
+    private List<CryptoCurrency> swapped;
+    private CryptoSnapshot previous;
+    private byte[] json;
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        streamDecoder = new ListingsStreamDecoder(objectMapper);
+        listings = ListingsFixture.generate(cacheSize, 42L);
+        previous = CryptoSnapshot.of(1L, listings);
+        // Same coins, with the two in the middle trading places.
+        swapped = ListingsFixture.generate(cacheSize, 42L);
+        int middle = Math.max(1, cacheSize / 2);
+        swapped.get(middle - 1).setCmcRank(middle + 1);
+        swapped.get(middle).setCmcRank(middle);
+        swapped.set(middle - 1, swapped.set(middle, swapped.get(middle - 1)));
+        json = ListingsFixture.json(objectMapper, listings);
+        chunks = new ArrayList<>();
+        for (int offset = 0; offset < json.length; offset += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(json, offset, Math.min(json.length, offset + CHUNK_SIZE)));
+        }
+    }
+
+    @Benchmark
+    public CoinMarketCapResponse deserializeResponse() throws IOException {
+        return objectMapper.readValue(json, CoinMarketCapResponse.class);
+    }
+
+    @Benchmark
+    public CryptoSnapshot deserializeAndBuildSnapshot() throws IOException {
+        return CryptoSnapshot.of(1L, objectMapper.readValue(json, CoinMarketCapResponse.class).getData());
+    }
+
+    @Benchmark
+    public CryptoSnapshot streamDecodeIntoSnapshot() {
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder();
+        Flux<DataBuffer> body = Flux.fromIterable(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        streamDecoder.decode(body, null).doOnNext(builder::add).blockLast();
+        return builder.build(1L);
+    }
+
+    @Benchmark
+    public CryptoSnapshot buildSnapshot() {
+        return CryptoSnapshot.of(1L, listings);
+    }
+
+    @Benchmark
+    public CryptoSnapshot buildDelta_Unchanged() {
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder();
+        listings.forEach(builder::add);
+        return builder.build(2L, previous);
+    }
+
+    @Benchmark
+    public CryptoSnapshot buildDelta_RankSwap() {
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder();
+        swapped.forEach(builder::add);
+        return builder.build(2L, previous);
+    }
+}
@@ -0,0 +1,114 @@
+package com.cuius.mcpserver.benchmark;
+
+import com.cuius.mcpserver.dto.CoinMarketCapResponse;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+import com.cuius.mcpserver.dto.Status;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates deterministic, rank-ordered synthetic listings shaped like the CoinMarketCap
+ * {@code /v1/cryptocurrency/listings/latest} payload, so runs with the same size are comparable.
+ */
+final class ListingsFixture {
+    private static final String[] SYLLABLES = {
+            "bit", "coin", "eth", "chain", "link", "doge", "sol", "ana", "poly", "gon", "ava", "lanche",
+            "shi", "ba", "uni", "swap", "tron", "stel", "lar", "card", "ano", "fil", "cos", "mos", "tez"
+    };
+    private static final String[] SUFFIXES = {"", " Token", " Network", " Protocol", " Finance", " Cash"};
+    private static final String[] TAGS = {"mineable", "pow", "pos", "defi", "layer-1", "memes", "stablecoin"};
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private ListingsFixture() {
+    }
+
+    static List<CryptoCurrency> generate(int size, long seed) {
+        Random random = new Random(seed);
+        List<CryptoCurrency> listings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Roughly power-law prices so formatting sees both large and sub-cent values.
+            double price = 100_000.0 / Math.pow(i + 1, 1.5) * (0.5 + random.nextDouble());
+            listings.add(crypto(i + 1L, name(random), symbol(random), i + 1, price, random));
+        }
+        return listings;
+    }
+
+    static CoinMarketCapResponse response(List<CryptoCurrency> listings) {
+        Status status = new Status();
+        status.setTimestamp(UPDATED);
+        status.setErrorCode(0);
+        status.setElapsed(12);
+        status.setCreditCount(Math.max(1, (listings.size() + 199) / 200));
+
+        CoinMarketCapResponse response = new CoinMarketCapResponse();
+        response.setStatus(status);
+        response.setData(listings);
+        return response;
+    }
+
+    static byte[] json(ObjectMapper objectMapper, List<CryptoCurrency> listings) {
+        try {
+            return objectMapper.writeValueAsBytes(response(listings));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize listings fixture", e);
+        }
+    }
+
+    private static CryptoCurrency crypto(long id, String name, String symbol, int rank, double price, Random random) {
+        double circulating = 1_000_000.0 + random.nextDouble() * 1_000_000_000.0;
+
+        Quote quote = new Quote();
+        quote.setPrice(price);
+        quote.setMarketCap(price * circulating);
+        quote.setVolume24h(price * circulating * random.nextDouble() * 0.1);
+        quote.setPercentChange1h(random.nextGaussian());
+        quote.setPercentChange24h(random.nextGaussian() * 4);
+        quote.setPercentChange7d(random.nextGaussian() * 10);
+        quote.setPercentChange30d(random.nextGaussian() * 20);
+        quote.setLastUpdated(UPDATED);
+        Map<String, Quote> quotes = new HashMap<>();
+        quotes.put("USD", quote);
+
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(name);
+        crypto.setSymbol(symbol);
+        crypto.setSlug(name.toLowerCase().replace(' ', '-'));
+        crypto.setNumMarketPairs(1 + random.nextInt(10_000));
+        crypto.setDateAdded(UPDATED.minusDays(random.nextInt(5_000)));
+        crypto.setTags(List.of(TAGS[random.nextInt(TAGS.length)], TAGS[random.nextInt(TAGS.length)]));
+        crypto.setCirculatingSupply(circulating);
+        crypto.setTotalSupply(circulating * (1 + random.nextDouble()));
+        crypto.setMaxSupply(random.nextBoolean() ? null : circulating * 2);
+        crypto.setCmcRank(rank);
+        crypto.setLastUpdated(UPDATED);
+        crypto.setQuote(quotes);
+        return crypto;
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.append(SUFFIXES[random.nextInt(SUFFIXES.length)]).toString();
+    }
+
+    private static String symbol(Random random) {
+        char[] symbol = new char[3 + random.nextInt(2)];
+        for (int i = 0; i < symbol.length; i++) {
+            symbol[i] = (char) ('A' + random.nextInt(26));
+        }
+        return new String(symbol);
+    }
+}
@@ -0,0 +1,29 @@
+package com.cuius.mcpserver.benchmark;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.List;
+
+/**
+ * Prints the retained heap of the decoded DTO list next to the snapshot built from it, for the same
+ * cache sizes the benchmarks use. Run with {@code ./gradlew snapshotFootprint}.
+ */
+public final class SnapshotFootprint {
+
+    private SnapshotFootprint() {
+    }
+
+    public static void main(String[] args) {
+        System.out.printf("%8s %14s %14s %14s%n", "coins", "dto bytes", "snapshot bytes", "bytes/coin");
+        for (int size : new int[]{10, 500, 5000}) {
+            List<CryptoCurrency> listings = ListingsFixture.generate(size, 42L);
+            CryptoSnapshot snapshot = CryptoSnapshot.of(1L, listings);
+
+            long dtoBytes = GraphLayout.parseInstance(listings).totalSize();
+            long snapshotBytes = GraphLayout.parseInstance(snapshot).totalSize();
+            System.out.printf("%8d %14d %14d %14d%n", size, dtoBytes, snapshotBytes, snapshotBytes / size);
+        }
+    }
+}
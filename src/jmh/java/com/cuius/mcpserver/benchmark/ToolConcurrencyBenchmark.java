@@ -0,0 +1,138 @@
+package com.cuius.mcpserver.benchmark;
+
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.QuoteHistory;
+import com.cuius.mcpserver.dto.CoinMarketCapResponse;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
+import com.cuius.mcpserver.service.CoinMarketCapToolService;
+import com.cuius.mcpserver.service.CoinMarketCapWebService;
+import com.cuius.mcpserver.service.CreditBudget;
+import com.cuius.mcpserver.service.ResponseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Time to drain a burst of concurrent sync tool calls whose upstream request blocks for a fixed
+ * latency, on the platform-thread bounded-elastic pool the sync MCP server uses by default versus
+ * virtual threads capped at the same or a higher concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolConcurrencyBenchmark {
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(20);
+
+    @Param({"100", "1000"})
+    private int burst;
+
+    @Param({"platform", "virtual-256", "virtual-1024"})
+    private String executor;
+
+    private ExecutorService executorService;
+    private Semaphore permits;
+    private ToolCallback fetchTool;
+    private ToolCallback symbolTool;
+
+    @Setup
+    public void setUp() {
+        Logger.getLogger(CoinMarketCapToolService.class.getName()).setLevel(Level.WARNING);
+
+        CoinMarketCapResponse response = ListingsFixture.response(ListingsFixture.generate(10, 42L));
+        CoinMarketCapWebService slowUpstream = new CoinMarketCapWebService(WebClient.builder().baseUrl("http://localhost").build(), CoinMarketCapMetrics.noop()) {
+            @Override
+            public CoinMarketCapResponse getCoinMarketCapWebResponse(Integer limit) {
+                try {
+                    Thread.sleep(UPSTREAM_LATENCY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return response;
+            }
+        };
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        CoinMarketCapToolService toolService = new CoinMarketCapToolService(slowUpstream, store, CoinMarketCapMetrics.noop(),
+                CreditBudget.unlimited(), QuoteHistory.disabled(), new ResponseCache(0, CoinMarketCapMetrics.noop(), store));
+        ToolCallback[] callbacks = MethodToolCallbackProvider.builder().toolObjects(toolService).build().getToolCallbacks();
+        fetchTool = tool(callbacks, "getLatestCryptoListings");
+        symbolTool = tool(callbacks, "getCryptoBySymbol");
+
+        switch (executor) {
+            // Same sizing as Schedulers.boundedElastic(): ten platform threads per core.
+            case "platform" -> executorService = Executors.newFixedThreadPool(10 * Runtime.getRuntime().availableProcessors());
+            case "virtual-256" -> virtualThreads(256);
+            case "virtual-1024" -> virtualThreads(1024);
+            default -> throw new IllegalArgumentException(executor);
+        }
+    }
+
+    // Mirrors reactor.schedulers.defaultBoundedElasticOnVirtualThreads: one virtual thread per task,
+    // at most maxConcurrency running, the rest parked.
+    private void virtualThreads(int maxConcurrency) {
+        executorService = Executors.newVirtualThreadPerTaskExecutor();
+        permits = new Semaphore(maxConcurrency);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public void burstOfToolCalls() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(burst);
+        for (int i = 0; i < burst; i++) {
+            ToolCallback tool = i % 4 == 0 ? fetchTool : symbolTool;
+            String input = i % 4 == 0 ? "{\"limit\":10}" : "{\"symbol\":\"BTC\"}";
+            executorService.execute(() -> {
+                try {
+                    if (permits != null) {
+                        permits.acquireUninterruptibly();
+                    }
+                    try {
+                        tool.call(input);
+                    } finally {
+                        if (permits != null) {
+                            permits.release();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private static ToolCallback tool(ToolCallback[] callbacks, String name) {
+        return Arrays.stream(callbacks)
+                .filter(callback -> callback.getToolDefinition().name().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,173 @@
+package com.cuius.mcpserver.benchmark;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.QuoteHistory;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
+import com.cuius.mcpserver.service.CoinMarketCapToolService;
+import com.cuius.mcpserver.service.CoinMarketCapWebService;
+import com.cuius.mcpserver.service.CreditBudget;
+import com.cuius.mcpserver.service.ResponseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-path cost of the cache-backed tools, including response formatting. The web service is never
+ * called; the cache is populated once per trial from the synthetic fixture. The {@code _LinearScan}
+ * benchmarks repeat the original stream scans over the same listings and the {@code _Index} benchmarks
+ * answer the same queries from the snapshot indexes, both without rendering a response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolServiceBenchmark {
+    private static final int SAMPLES = 64;
+
+    @Param({"10", "500", "5000"})
+    private int cacheSize;
+
+    private CoinMarketCapToolService toolService;
+    private List<CryptoCurrency> listings;
+    private CryptoSnapshot snapshot;
+    private String[] symbols;
+    private String[] nameQueries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Every tool call logs at INFO; keep console I/O out of the measurement.
+        Logger.getLogger(CoinMarketCapToolService.class.getName()).setLevel(Level.WARNING);
+
+        listings = ListingsFixture.generate(cacheSize, 42L);
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        snapshot = store.publish(listings);
+        // Response caching stays off so every call measures the lookup and rendering.
+        toolService = new CoinMarketCapToolService(
+                new CoinMarketCapWebService(WebClient.builder().baseUrl("http://localhost").build(), CoinMarketCapMetrics.noop()),
+                store, CoinMarketCapMetrics.noop(), CreditBudget.unlimited(), QuoteHistory.disabled(),
+                new ResponseCache(0, CoinMarketCapMetrics.noop(), store));
+
+        Random random = new Random(7L);
+        symbols = new String[SAMPLES];
+        nameQueries = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            CryptoCurrency crypto = listings.get(random.nextInt(listings.size()));
+            symbols[i] = i % 2 == 0 ? crypto.getSymbol() : crypto.getSymbol().toLowerCase();
+            String name = crypto.getName().toLowerCase();
+            int start = random.nextInt(Math.max(1, name.length() - 4));
+            nameQueries[i] = name.substring(start, Math.min(name.length(), start + 4));
+        }
+    }
+
+    private int nextSample() {
+        next = (next + 1) & (SAMPLES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public String getCryptoBySymbol() {
+        return toolService.getCryptoBySymbol(symbols[nextSample()], null);
+    }
+
+    @Benchmark
+    public List<CryptoCurrency> getCryptoBySymbol_LinearScan() {
+        String symbol = symbols[nextSample()];
+        return listings.stream()
+                .filter(crypto -> crypto.getSymbol().equalsIgnoreCase(symbol.trim()))
+                .toList();
+    }
+
+    @Benchmark
+    public int[] getCryptoBySymbol_Index() {
+        return snapshot.findBySymbol(symbols[nextSample()]);
+    }
+
+    @Benchmark
+    public String getCryptoBySymbol_Miss() {
+        return toolService.getCryptoBySymbol("NOPE", null);
+    }
+
+    @Benchmark
+    public String getTopCryptos_10() {
+        return toolService.getTopCryptos(10, null);
+    }
+
+    @Benchmark
+    public String getTopCryptos_100() {
+        return toolService.getTopCryptos(100, null);
+    }
+
+    @Benchmark
+    public String getTopCryptos_500() {
+        return toolService.getTopCryptos(500, null);
+    }
+
+    @Benchmark
+    public String searchCryptoByName() {
+        return toolService.searchCryptoByName(nameQueries[nextSample()], null);
+    }
+
+    @Benchmark
+    public List<CryptoCurrency> searchCryptoByName_LinearScan() {
+        String name = nameQueries[nextSample()];
+        return listings.stream()
+                .filter(crypto -> crypto.getName().toLowerCase().contains(name.toLowerCase().trim()))
+                .toList();
+    }
+
+    @Benchmark
+    public int[] searchCryptoByName_Index() {
+        // Unlimited, so it returns every coin the linear scan does.
+        return snapshot.searchByName(nameQueries[nextSample()], Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public String searchCryptoByName_ShortQuery() {
+        return toolService.searchCryptoByName("co", null);
+    }
+
+    @Benchmark
+    public String getTopMovers_10() {
+        return toolService.getTopMovers("24h", 10, null, null);
+    }
+
+    @Benchmark
+    public String getTopMovers_Filtered() {
+        return toolService.getTopMovers("7d", 10, "market_cap>=1e8", null);
+    }
+
+    @Benchmark
+    public String getMarketOverview() {
+        return toolService.getMarketOverview(null, null);
+    }
+
+    @Benchmark
+    public String getCryptosByTag() {
+        return toolService.getCryptosByTag("defi and layer-1 or memes", 10, null);
+    }
+
+    @Benchmark
+    public String queryCryptos_RangeSorted() {
+        return toolService.queryCryptos("price>=1, percent_change_24h>0", "volume_24h", "desc", 20, null);
+    }
+}
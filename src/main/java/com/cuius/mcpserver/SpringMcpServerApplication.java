@@ -1,12 +1,20 @@
 package com.cuius.mcpserver;
 
+import com.cuius.mcpserver.config.AsyncToolSpecifications;
+import com.cuius.mcpserver.metrics.TimedToolCallback;
+import com.cuius.mcpserver.service.CoinMarketCapAsyncToolService;
 import com.cuius.mcpserver.service.CoinMarketCapToolService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
+import java.util.List;
 import java.util.logging.Logger;
 
 @SpringBootApplication
@@ -18,8 +26,17 @@ public class SpringMcpServerApplication {
     }
 
     @Bean
-    public ToolCallbackProvider coinMarketCapTools(CoinMarketCapToolService coinMarketCapToolService){
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "sync", matchIfMissing = true)
+    public ToolCallbackProvider coinMarketCapTools(CoinMarketCapToolService coinMarketCapToolService, MeterRegistry meterRegistry){
         logger.info("Registering Tool: CoinMarketCapTool");
-        return MethodToolCallbackProvider.builder().toolObjects(coinMarketCapToolService).build();
+        return TimedToolCallback.wrap(MethodToolCallbackProvider.builder().toolObjects(coinMarketCapToolService).build(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "async")
+    public List<AsyncToolSpecification> coinMarketCapAsyncTools(CoinMarketCapAsyncToolService coinMarketCapAsyncToolService,
+                                                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        logger.info("Registering async Tool: CoinMarketCapTool");
+        return AsyncToolSpecifications.from(coinMarketCapAsyncToolService, objectMapper, meterRegistry);
     }
 }
@@ -0,0 +1,123 @@
+package com.cuius.mcpserver.cache;
+
+import java.util.Arrays;
+
+/**
+ * Ordinals of the non-missing values of one column sorted by value, equal values in ordinal (rank)
+ * order, plus the inverse mapping. A value range is two binary searches, and a set of ordinals is put
+ * in column order by sorting their positions as plain {@code int}s.
+ */
+final class ColumnIndex {
+    static final int MISSING = -1;
+
+    private final double[] column;
+    private final int[] ordinals;
+    private final int[] positions;
+
+    private ColumnIndex(double[] column, int[] ordinals, int[] positions) {
+        this.column = column;
+        this.ordinals = ordinals;
+        this.positions = positions;
+    }
+
+    static ColumnIndex build(double[] column) {
+        IntList present = new IntList(column.length);
+        for (int ordinal = 0; ordinal < column.length; ordinal++) {
+            if (!Double.isNaN(column[ordinal])) {
+                present.add(ordinal);
+            }
+        }
+
+        int[] ordinals = sort(present.toArray(), column);
+        int[] positions = new int[column.length];
+        Arrays.fill(positions, MISSING);
+        for (int position = 0; position < ordinals.length; position++) {
+            positions[ordinals[position]] = position;
+        }
+        return new ColumnIndex(column, ordinals, positions);
+    }
+
+    int size() {
+        return ordinals.length;
+    }
+
+    int ordinal(int position) {
+        return ordinals[position];
+    }
+
+    /**
+     * Returns the indexed ordinals in value order. The array is shared and must not be modified.
+     */
+    int[] ordinals() {
+        return ordinals;
+    }
+
+    /**
+     * Returns the position of {@code ordinal} in value order, or {@link #MISSING} when its value is missing.
+     */
+    int position(int ordinal) {
+        return positions[ordinal];
+    }
+
+    /**
+     * Returns the first position whose value is not below {@code value}.
+     */
+    int lowerBound(double value) {
+        int low = 0;
+        int high = ordinals.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (column[ordinals[mid]] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first position whose value is above {@code value}.
+     */
+    int upperBound(double value) {
+        int low = 0;
+        int high = ordinals.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (column[ordinals[mid]] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Bottom-up merge sort; it is stable, so ordinals arriving in ascending order stay so among equal values.
+    private static int[] sort(int[] ordinals, double[] column) {
+        int[] from = ordinals;
+        int[] to = new int[ordinals.length];
+        for (int width = 1; width < from.length; width *= 2) {
+            for (int low = 0; low < from.length; low += 2 * width) {
+                int mid = Math.min(low + width, from.length);
+                int high = Math.min(low + 2 * width, from.length);
+                int i = low;
+                int j = mid;
+                int k = low;
+                while (i < mid && j < high) {
+                    to[k++] = Double.compare(column[from[j]], column[from[i]]) < 0 ? from[j++] : from[i++];
+                }
+                while (i < mid) {
+                    to[k++] = from[i++];
+                }
+                while (j < high) {
+                    to[k++] = from[j++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        return from;
+    }
+}
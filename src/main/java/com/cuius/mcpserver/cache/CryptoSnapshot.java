@@ -0,0 +1,646 @@
+package com.cuius.mcpserver.cache;
+
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * Immutable, versioned view of the cached listings. A snapshot is fully built before it is
+ * published, so readers holding a reference never observe a partially refreshed cache.
+ *
+ * <p>Entries are stored column-wise in primitive arrays and addressed by ordinal, which is the
+ * entry's position in market cap rank order. Missing numeric values are {@code NaN}, a missing rank
+ * is {@link #NO_RANK}, and no DTOs are retained once a snapshot is built. Quotes are kept as one set
+ * of {@link QuoteColumns} per quote currency, and tags are indexed by a {@link TagIndex}.
+ *
+ * <p>Because snapshots are immutable, a refresh built against the previous snapshot shares every
+ * column that none of its changed rows touch and patches only the index entries of those rows; see
+ * {@link Builder#build(long, CryptoSnapshot)}.
+ */
+public final class CryptoSnapshot {
+    public static final int NO_RANK = Integer.MAX_VALUE;
+    public static final long NO_ID = Long.MIN_VALUE;
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    public static final String QUOTE_CURRENCY = "USD";
+
+    private static final int[] NO_MATCHES = new int[0];
+    private static final String[] NO_TAGS = new String[0];
+    private static final CryptoSnapshot EMPTY = builder().build(0L, Instant.EPOCH);
+
+    private final long version;
+    private final Instant createdAt;
+    private final int size;
+    private final long[] ids;
+    private final long[] lastUpdated;
+    private final String[] names;
+    private final String[] symbols;
+    private final int[] ranks;
+    private final double[] circulatingSupply;
+    private final double[] totalSupply;
+    private final double[] maxSupply;
+    private final String[][] tags;
+    private final Map<String, QuoteColumns> quotes;
+    private final String defaultCurrency;
+    private final QuoteColumns defaultQuotes;
+    private final Map<String, MarketAggregates> aggregates;
+    private final Map<String, int[]> symbolIndex;
+    private final NameSearchIndex nameIndex;
+    private final TagIndex tagIndex;
+
+    private CryptoSnapshot(long version, Instant createdAt, int size, long[] ids, long[] lastUpdated,
+                           String[] names, String[] symbols, int[] ranks, double[] circulatingSupply, double[] totalSupply, double[] maxSupply,
+                           String[][] tags, Map<String, QuoteColumns> quotes, Map<String, int[]> symbolIndex,
+                           NameSearchIndex nameIndex, TagIndex tagIndex, CryptoSnapshot previous) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.size = size;
+        this.ids = ids;
+        this.lastUpdated = lastUpdated;
+        this.names = names;
+        this.symbols = symbols;
+        this.ranks = ranks;
+        this.circulatingSupply = circulatingSupply;
+        this.totalSupply = totalSupply;
+        this.maxSupply = maxSupply;
+        this.tags = tags;
+        this.quotes = quotes;
+        this.defaultCurrency = quotes.containsKey(QUOTE_CURRENCY) ? QUOTE_CURRENCY : quotes.keySet().iterator().next();
+        this.defaultQuotes = quotes.get(defaultCurrency);
+        this.aggregates = new HashMap<>(quotes.size() * 2);
+        // Aggregates only read the ranks and the quotes, so they carry over while both are shared.
+        quotes.forEach((currency, columns) -> aggregates.put(currency,
+                previous != null && previous.ranks == ranks && previous.quotes.get(currency) == columns
+                        ? previous.aggregates.get(currency)
+                        : MarketAggregates.compute(size, ranks, columns)));
+        this.symbolIndex = symbolIndex;
+        this.nameIndex = nameIndex;
+        this.tagIndex = tagIndex;
+    }
+
+    public static CryptoSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static CryptoSnapshot of(long version, List<CryptoCurrency> cryptocurrencies) {
+        Builder builder = builder();
+        cryptocurrencies.forEach(builder::add);
+        return builder.build(version);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Recreates a snapshot from rank-ordered columns, e.g. read back from a {@link SnapshotFile}. The
+     * lookup indexes are not persisted and are rebuilt here.
+     */
+    static CryptoSnapshot restore(long version, Instant createdAt, long[] ids, long[] lastUpdated, String[] names,
+                                  String[] symbols, int[] ranks, double[] circulatingSupply, double[] totalSupply,
+                                  double[] maxSupply, String[][] tags, Map<String, QuoteColumns> quotes) {
+        return new CryptoSnapshot(version, createdAt, ids.length, ids, lastUpdated, names, symbols, ranks,
+                circulatingSupply, totalSupply, maxSupply, tags, quotes, indexSymbols(symbols),
+                NameSearchIndex.build(names), TagIndex.build(tags), null);
+    }
+
+    private static Map<String, int[]> indexSymbols(String[] symbols) {
+        Map<String, IntList> rows = new HashMap<>();
+        for (int ordinal = 0; ordinal < symbols.length; ordinal++) {
+            if (symbols[ordinal] != null) {
+                rows.computeIfAbsent(normalizeSymbol(symbols[ordinal]), key -> new IntList(1)).add(ordinal);
+            }
+        }
+
+        // Ordinals are visited in rank order, so every posting list is already sorted.
+        Map<String, int[]> symbolIndex = new HashMap<>(rows.size() * 2);
+        rows.forEach((symbol, ordinals) -> symbolIndex.put(symbol, ordinals.toArray()));
+        return Collections.unmodifiableMap(symbolIndex);
+    }
+
+    private static String normalizeSymbol(String symbol) {
+        return symbol.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Duration getAge() {
+        return Duration.between(createdAt, Instant.now());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getId(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /**
+     * Returns when CoinMarketCap last updated the entry, in epoch millis, or {@link #NO_TIMESTAMP}.
+     */
+    public long getLastUpdated(int ordinal) {
+        return lastUpdated[ordinal];
+    }
+
+    public String getName(int ordinal) {
+        return names[ordinal];
+    }
+
+    public String getSymbol(int ordinal) {
+        return symbols[ordinal];
+    }
+
+    public int getRank(int ordinal) {
+        return ranks[ordinal];
+    }
+
+    public double getCirculatingSupply(int ordinal) {
+        return circulatingSupply[ordinal];
+    }
+
+    public double getTotalSupply(int ordinal) {
+        return totalSupply[ordinal];
+    }
+
+    public double getMaxSupply(int ordinal) {
+        return maxSupply[ordinal];
+    }
+
+    /**
+     * Returns the entry's normalized (lower-case) tags.
+     */
+    public List<String> getTags(int ordinal) {
+        return List.of(tags[ordinal]);
+    }
+
+    public TagIndex getTagIndex() {
+        return tagIndex;
+    }
+
+    /**
+     * Returns the quotes in {@link #QUOTE_CURRENCY} or, when it was not fetched, in the first fetched
+     * currency.
+     */
+    public QuoteColumns getQuotes() {
+        return defaultQuotes;
+    }
+
+    public String getDefaultCurrency() {
+        return defaultCurrency;
+    }
+
+    /**
+     * Returns the market aggregates computed when this snapshot was built for {@code currency}
+     * (case-insensitive), or {@code null} when it was not fetched.
+     */
+    public MarketAggregates getAggregates(String currency) {
+        return currency != null ? aggregates.get(normalizeCurrency(currency)) : null;
+    }
+
+    /**
+     * Returns the quotes in {@code currency} (case-insensitive), or {@code null} when it was not fetched.
+     */
+    public QuoteColumns getQuotes(String currency) {
+        return currency != null ? quotes.get(normalizeCurrency(currency)) : null;
+    }
+
+    /**
+     * Returns the fetched quote currencies, in the order they were first seen.
+     */
+    public Set<String> getCurrencies() {
+        return quotes.keySet();
+    }
+
+    public static String normalizeCurrency(String currency) {
+        return currency.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the ordinals, in rank order, of every coin carrying {@code symbol}; CoinMarketCap
+     * reuses tickers across coins.
+     */
+    public int[] findBySymbol(String symbol) {
+        if (symbol == null) {
+            return NO_MATCHES;
+        }
+        int[] matches = symbolIndex.get(normalizeSymbol(symbol));
+        return matches != null ? matches.clone() : NO_MATCHES;
+    }
+
+    public int[] searchByName(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return NO_MATCHES;
+        }
+        return nameIndex.search(query, limit);
+    }
+
+    /**
+     * Accumulates entries as they are decoded, copying each one into growable columns so the DTO can
+     * be discarded immediately. Rank ordering, the symbol index and the name index are finalized in
+     * {@link #build(long)} or {@link #build(long, CryptoSnapshot)}. A builder is single use and not
+     * thread-safe.
+     */
+    public static final class Builder {
+        private final Map<Long, Integer> rowsById = new HashMap<>();
+        private final Map<String, QuoteColumns.Builder> quotes = new LinkedHashMap<>();
+        private long[] ids = new long[16];
+        private long[] lastUpdated = new long[16];
+        private String[] names = new String[16];
+        private String[] symbols = new String[16];
+        private int[] ranks = new int[16];
+        private double[] circulatingSupply = new double[16];
+        private double[] totalSupply = new double[16];
+        private double[] maxSupply = new double[16];
+        private String[][] tags = new String[16][];
+        private final Map<String, String> tagNames = new HashMap<>();
+        private int size;
+        private boolean rankOrdered = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an entry, or when its id was already added, only the quote currencies that entry does not
+         * have yet: pages can overlap when ranks shift mid-fetch, a retried page replays its entries, and
+         * each convert batch lists the same coins again with other currencies.
+         */
+        public Builder add(CryptoCurrency crypto) {
+            if (crypto == null) {
+                return this;
+            }
+            Integer existing = crypto.getId() != null ? rowsById.putIfAbsent(crypto.getId(), size) : null;
+            if (existing != null) {
+                lastUpdated[existing] = Math.max(lastUpdated[existing], addQuotes(existing, crypto));
+                return this;
+            }
+            if (size == ids.length) {
+                grow(size * 2);
+            }
+
+            int rank = crypto.getCmcRank() != null ? crypto.getCmcRank() : NO_RANK;
+            rankOrdered &= size == 0 || rank >= ranks[size - 1];
+
+            ids[size] = crypto.getId() != null ? crypto.getId() : NO_ID;
+            lastUpdated[size] = Math.max(epochMillis(crypto.getLastUpdated()), addQuotes(size, crypto));
+            names[size] = crypto.getName();
+            symbols[size] = crypto.getSymbol();
+            ranks[size] = rank;
+            circulatingSupply[size] = QuoteColumns.valueOf(crypto.getCirculatingSupply());
+            totalSupply[size] = QuoteColumns.valueOf(crypto.getTotalSupply());
+            maxSupply[size] = QuoteColumns.valueOf(crypto.getMaxSupply());
+            tags[size] = normalizeTags(crypto.getTags());
+            size++;
+            return this;
+        }
+
+        // Every row carrying a tag shares one normalized String instance.
+        private String[] normalizeTags(List<String> rawTags) {
+            if (rawTags == null || rawTags.isEmpty()) {
+                return NO_TAGS;
+            }
+            String[] normalized = new String[rawTags.size()];
+            int count = 0;
+            for (String tag : rawTags) {
+                if (tag == null || tag.isBlank()) {
+                    continue;
+                }
+                String name = tagNames.computeIfAbsent(TagIndex.normalize(tag), key -> key);
+                if (!contains(normalized, count, name)) {
+                    normalized[count++] = name;
+                }
+            }
+            return count == 0 ? NO_TAGS : Arrays.copyOf(normalized, count);
+        }
+
+        private static boolean contains(String[] values, int count, String value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Returns the latest quote timestamp, so a move in any currency marks the row as changed.
+        private long addQuotes(int row, CryptoCurrency crypto) {
+            long latest = NO_TIMESTAMP;
+            if (crypto.getQuote() == null) {
+                return latest;
+            }
+            for (Map.Entry<String, Quote> quote : crypto.getQuote().entrySet()) {
+                if (quote.getKey() == null || quote.getValue() == null) {
+                    continue;
+                }
+                QuoteColumns.Builder columns = quotes.computeIfAbsent(normalizeCurrency(quote.getKey()),
+                        currency -> new QuoteColumns.Builder(ids.length));
+                if (!columns.hasQuote(row)) {
+                    columns.set(row, quote.getValue());
+                    latest = Math.max(latest, epochMillis(quote.getValue().getLastUpdated()));
+                }
+            }
+            return latest;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public CryptoSnapshot build(long version) {
+            return build(version, Instant.now());
+        }
+
+        /**
+         * Builds the next snapshot as a delta of {@code previous}. Rows are matched by id at each rank
+         * ordinal: a row is re-read when a different coin now holds the ordinal, its {@code last_updated}
+         * moved, or its rank, name, symbol or tags differ. Columns none of those rows change are shared
+         * with {@code previous}, and the symbol, name and tag indexes only re-list the entries of changed
+         * rows. When most rows changed, this is a full build.
+         */
+        public CryptoSnapshot build(long version, CryptoSnapshot previous) {
+            int[] order = rankOrdered ? null : rankOrder();
+            if (previous == null || previous.isEmpty()) {
+                return build(version, Instant.now(), order);
+            }
+            int[] changed = changedOrdinals(previous, order);
+            // Past half the rows, building the columns and indexes in one pass is cheaper than patching them.
+            if (changed.length > size / 2) {
+                return build(version, Instant.now(), order);
+            }
+
+            String[] mergedSymbols = merge(previous.symbols, symbols, size, changed, order, Objects::equals);
+            String[] mergedNames = merge(previous.names, names, size, changed, order, Objects::equals);
+            String[][] mergedTags = merge(previous.tags, tags, size, changed, order, Arrays::equals);
+            return new CryptoSnapshot(version, Instant.now(), size,
+                    merge(previous.ids, ids, size, changed, order),
+                    merge(previous.lastUpdated, lastUpdated, size, changed, order),
+                    mergedNames,
+                    mergedSymbols,
+                    merge(previous.ranks, ranks, size, changed, order),
+                    QuoteColumns.merge(previous.circulatingSupply, circulatingSupply, size, changed, order),
+                    QuoteColumns.merge(previous.totalSupply, totalSupply, size, changed, order),
+                    QuoteColumns.merge(previous.maxSupply, maxSupply, size, changed, order),
+                    mergedTags,
+                    mergeQuotes(previous.quotes, changed, order),
+                    mergedSymbols == previous.symbols ? previous.symbolIndex : patchSymbols(previous, mergedSymbols, changed),
+                    mergedNames == previous.names ? previous.nameIndex : previous.nameIndex.patch(mergedNames, changed),
+                    mergedTags == previous.tags ? previous.tagIndex : previous.tagIndex.patch(previous.tags, mergedTags, changed),
+                    previous);
+        }
+
+        private CryptoSnapshot build(long version, Instant createdAt) {
+            // Listings normally arrive rank-ordered; otherwise sort once (stable, unranked coins last)
+            // so top-N reads are a prefix of the columns.
+            return build(version, createdAt, rankOrdered ? null : rankOrder());
+        }
+
+        private CryptoSnapshot build(long version, Instant createdAt, int[] order) {
+            String[] orderedNames = permute(names, order);
+            String[] orderedSymbols = permute(symbols, order);
+            String[][] orderedTags = permute(tags, order);
+            return new CryptoSnapshot(version, createdAt, size,
+                    permute(ids, order),
+                    permute(lastUpdated, order),
+                    orderedNames,
+                    orderedSymbols,
+                    permute(ranks, order),
+                    QuoteColumns.permute(circulatingSupply, size, order),
+                    QuoteColumns.permute(totalSupply, size, order),
+                    QuoteColumns.permute(maxSupply, size, order),
+                    orderedTags,
+                    buildQuotes(order),
+                    indexSymbols(orderedSymbols),
+                    NameSearchIndex.build(orderedNames),
+                    TagIndex.build(orderedTags),
+                    null);
+        }
+
+        private Map<String, QuoteColumns> buildQuotes(int[] order) {
+            if (quotes.isEmpty()) {
+                // Keep a (missing) default currency so readers never have to null-check.
+                quotes.put(QUOTE_CURRENCY, new QuoteColumns.Builder(0));
+            }
+            Map<String, QuoteColumns> built = new LinkedHashMap<>();
+            quotes.forEach((currency, columns) -> built.put(currency, columns.build(size, order)));
+            return Collections.unmodifiableMap(built);
+        }
+
+        private Map<String, QuoteColumns> mergeQuotes(Map<String, QuoteColumns> previous, int[] changed, int[] order) {
+            if (quotes.isEmpty()) {
+                quotes.put(QUOTE_CURRENCY, new QuoteColumns.Builder(0));
+            }
+            Map<String, QuoteColumns> merged = new LinkedHashMap<>();
+            boolean unchanged = quotes.keySet().equals(previous.keySet());
+            for (Map.Entry<String, QuoteColumns.Builder> columns : quotes.entrySet()) {
+                QuoteColumns previousColumns = previous.get(columns.getKey());
+                QuoteColumns mergedColumns = columns.getValue().merge(previousColumns, size, changed, order);
+                unchanged &= mergedColumns == previousColumns;
+                merged.put(columns.getKey(), mergedColumns);
+            }
+            return unchanged ? previous : Collections.unmodifiableMap(merged);
+        }
+
+        // Ascending ordinals whose row has to be re-read; every ordinal past the end of previous is one.
+        private int[] changedOrdinals(CryptoSnapshot previous, int[] order) {
+            IntList changed = new IntList();
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                int row = row(ordinal, order);
+                // Without an id or a timestamp there is nothing to compare, so the row is always re-read.
+                if (ordinal >= previous.size || ids[row] == NO_ID || ids[row] != previous.ids[ordinal]
+                        || lastUpdated[row] == NO_TIMESTAMP || lastUpdated[row] != previous.lastUpdated[ordinal]
+                        || ranks[row] != previous.ranks[ordinal]
+                        || !Objects.equals(names[row], previous.names[ordinal])
+                        || !Objects.equals(symbols[row], previous.symbols[ordinal])
+                        || !Arrays.equals(tags[row], previous.tags[ordinal])) {
+                    changed.add(ordinal);
+                }
+            }
+            return changed.toArray();
+        }
+
+        // Re-lists only the symbols a changed or dropped ordinal gained or lost; the others keep their postings.
+        private static Map<String, int[]> patchSymbols(CryptoSnapshot previous, String[] symbols, int[] changed) {
+            BitSet moved = new BitSet();
+            Set<String> affected = new HashSet<>();
+            Map<String, IntList> added = new HashMap<>();
+            for (int ordinal : changed) {
+                String before = ordinal < previous.size && previous.symbols[ordinal] != null ? normalizeSymbol(previous.symbols[ordinal]) : null;
+                String after = symbols[ordinal] != null ? normalizeSymbol(symbols[ordinal]) : null;
+                if (Objects.equals(before, after)) {
+                    continue;
+                }
+                moved.set(ordinal);
+                if (before != null) {
+                    affected.add(before);
+                }
+                if (after != null) {
+                    affected.add(after);
+                    added.computeIfAbsent(after, key -> new IntList(1)).add(ordinal);
+                }
+            }
+            for (int ordinal = symbols.length; ordinal < previous.size; ordinal++) {
+                moved.set(ordinal);
+                if (previous.symbols[ordinal] != null) {
+                    affected.add(normalizeSymbol(previous.symbols[ordinal]));
+                }
+            }
+            if (affected.isEmpty()) {
+                return previous.symbolIndex;
+            }
+
+            Map<String, int[]> patched = new HashMap<>(previous.symbolIndex);
+            for (String symbol : affected) {
+                int[] ordinals = IntList.patch(previous.symbolIndex.getOrDefault(symbol, NO_MATCHES), moved, added.get(symbol));
+                if (ordinals.length == 0) {
+                    patched.remove(symbol);
+                } else {
+                    patched.put(symbol, ordinals);
+                }
+            }
+            return Collections.unmodifiableMap(patched);
+        }
+
+        private static int row(int ordinal, int[] order) {
+            return order != null ? order[ordinal] : ordinal;
+        }
+
+        // The merges copy previous on the first changed ordinal whose value differs, or up front when the size changed.
+        private static long[] merge(long[] previous, long[] column, int size, int[] changed, int[] order) {
+            long[] merged = previous.length == size ? previous : Arrays.copyOf(previous, size);
+            for (int ordinal : changed) {
+                long value = column[row(ordinal, order)];
+                if (value != merged[ordinal]) {
+                    if (merged == previous) {
+                        merged = previous.clone();
+                    }
+                    merged[ordinal] = value;
+                }
+            }
+            return merged;
+        }
+
+        private static int[] merge(int[] previous, int[] column, int size, int[] changed, int[] order) {
+            int[] merged = previous.length == size ? previous : Arrays.copyOf(previous, size);
+            for (int ordinal : changed) {
+                int value = column[row(ordinal, order)];
+                if (value != merged[ordinal]) {
+                    if (merged == previous) {
+                        merged = previous.clone();
+                    }
+                    merged[ordinal] = value;
+                }
+            }
+            return merged;
+        }
+
+        private static <T> T[] merge(T[] previous, T[] column, int size, int[] changed, int[] order, BiPredicate<T, T> same) {
+            T[] merged = previous.length == size ? previous : Arrays.copyOf(previous, size);
+            for (int ordinal : changed) {
+                T value = column[row(ordinal, order)];
+                if (!same.test(value, merged[ordinal])) {
+                    if (merged == previous) {
+                        merged = previous.clone();
+                    }
+                    merged[ordinal] = value;
+                }
+            }
+            return merged;
+        }
+
+        private int[] rankOrder() {
+            Integer[] rows = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = i;
+            }
+            Arrays.sort(rows, (a, b) -> Integer.compare(ranks[a], ranks[b]));
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = rows[i];
+            }
+            return order;
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            lastUpdated = Arrays.copyOf(lastUpdated, capacity);
+            names = Arrays.copyOf(names, capacity);
+            symbols = Arrays.copyOf(symbols, capacity);
+            ranks = Arrays.copyOf(ranks, capacity);
+            circulatingSupply = Arrays.copyOf(circulatingSupply, capacity);
+            totalSupply = Arrays.copyOf(totalSupply, capacity);
+            maxSupply = Arrays.copyOf(maxSupply, capacity);
+            tags = Arrays.copyOf(tags, capacity);
+        }
+
+        private long[] permute(long[] column, int[] order) {
+            long[] ordered = new long[size];
+            for (int i = 0; i < size; i++) {
+                ordered[i] = column[order != null ? order[i] : i];
+            }
+            return ordered;
+        }
+
+        private int[] permute(int[] column, int[] order) {
+            int[] ordered = new int[size];
+            for (int i = 0; i < size; i++) {
+                ordered[i] = column[order != null ? order[i] : i];
+            }
+            return ordered;
+        }
+
+        private String[] permute(String[] column, int[] order) {
+            String[] ordered = new String[size];
+            for (int i = 0; i < size; i++) {
+                ordered[i] = column[order != null ? order[i] : i];
+            }
+            return ordered;
+        }
+
+        private String[][] permute(String[][] column, int[] order) {
+            String[][] ordered = new String[size][];
+            for (int i = 0; i < size; i++) {
+                ordered[i] = column[order != null ? order[i] : i];
+            }
+            return ordered;
+        }
+
+        // CoinMarketCap timestamps are UTC.
+        private static long epochMillis(LocalDateTime timestamp) {
+            return timestamp != null ? timestamp.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIMESTAMP;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoSnapshot{" +
+                "version=" + version +
+                ", createdAt=" + createdAt +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,75 @@
+package com.cuius.mcpserver.cache;
+
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Holds the currently published {@link CryptoSnapshot}. Readers take whatever snapshot is current
+ * without locking; writers build a new snapshot off to the side and swap it in.
+ */
+@Component
+public class CryptoSnapshotStore {
+    private final AtomicReference<CryptoSnapshot> snapshot = new AtomicReference<>(CryptoSnapshot.empty());
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final List<Consumer<CryptoSnapshot>> publishListeners = new CopyOnWriteArrayList<>();
+
+    public CryptoSnapshot current() {
+        return snapshot.get();
+    }
+
+    public CryptoSnapshot publish(List<CryptoCurrency> cryptocurrencies) {
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder();
+        cryptocurrencies.forEach(builder::add);
+        return publish(builder);
+    }
+
+    // Built as a delta of the current snapshot so an unchanged market reuses its columns and indexes.
+    public CryptoSnapshot publish(CryptoSnapshot.Builder builder) {
+        return publish(builder.build(versions.incrementAndGet(), current()));
+    }
+
+    // Two refreshes can finish out of order; never let an older build replace a newer one.
+    private CryptoSnapshot publish(CryptoSnapshot refreshed) {
+        if (snapshot.accumulateAndGet(refreshed, (current, next) -> next.getVersion() > current.getVersion() ? next : current) == refreshed) {
+            publishListeners.forEach(listener -> listener.accept(refreshed));
+        }
+        return refreshed;
+    }
+
+    /**
+     * Installs a snapshot restored from disk, but only while nothing has been published yet: a
+     * refresh that already completed is always fresher. Later versions continue from its version.
+     */
+    public boolean restore(CryptoSnapshot restored) {
+        versions.accumulateAndGet(restored.getVersion(), Math::max);
+        return snapshot.compareAndSet(CryptoSnapshot.empty(), restored);
+    }
+
+    /**
+     * Registers a callback invoked, on the publishing thread, whenever a newly built snapshot becomes
+     * current. Restored snapshots are not reported.
+     */
+    public void addPublishListener(Consumer<CryptoSnapshot> listener) {
+        publishListeners.add(listener);
+    }
+
+    public boolean tryBeginRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    public void endRefresh() {
+        refreshing.set(false);
+    }
+
+    public boolean isRefreshing() {
+        return refreshing.get();
+    }
+}
@@ -0,0 +1,69 @@
+package com.cuius.mcpserver.cache;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Minimal growable {@code int} array used while building indexes, avoiding boxed {@code List<Integer>}.
+ */
+final class IntList {
+    private int[] values;
+    private int size;
+
+    IntList() {
+        this(4);
+    }
+
+    IntList(int capacity) {
+        this.values = new int[Math.max(1, capacity)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    void addIfNotLast(int value) {
+        if (size == 0 || values[size - 1] != value) {
+            add(value);
+        }
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the ascending {@code postings} without the values in {@code removed}, merged with the
+     * ascending values of {@code added} (which may be null).
+     */
+    static int[] patch(int[] postings, BitSet removed, IntList added) {
+        int addedSize = added != null ? added.size : 0;
+        int[] patched = new int[postings.length + addedSize];
+        int count = 0;
+        int next = 0;
+        for (int value : postings) {
+            if (removed.get(value)) {
+                continue;
+            }
+            while (next < addedSize && added.values[next] < value) {
+                patched[count++] = added.values[next++];
+            }
+            patched[count++] = value;
+        }
+        while (next < addedSize) {
+            patched[count++] = added.values[next++];
+        }
+        return count == patched.length ? patched : Arrays.copyOf(patched, count);
+    }
+}
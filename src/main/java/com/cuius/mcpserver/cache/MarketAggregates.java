@@ -0,0 +1,182 @@
+package com.cuius.mcpserver.cache;
+
+import com.cuius.mcpserver.cache.QuoteColumns.Field;
+
+import java.util.Arrays;
+
+/**
+ * Market-wide figures for one quote currency of a snapshot: totals, market cap and volume of the
+ * top-N rank buckets, and the mean, median and up/down counts of every percent change. They are
+ * computed in one pass when the snapshot is built, so reading them never touches the coins again.
+ */
+public final class MarketAggregates {
+    private static final int[] RANK_BUCKETS = {10, 100, 500, 1000};
+    private static final Field[] CHANGES = {Field.PERCENT_CHANGE_1H, Field.PERCENT_CHANGE_24H,
+            Field.PERCENT_CHANGE_7D, Field.PERCENT_CHANGE_30D};
+
+    private final int coins;
+    private final double totalMarketCap;
+    private final double totalVolume24h;
+    private final int[] bucketCoins;
+    private final double[] bucketMarketCap;
+    private final double[] bucketVolume24h;
+    private final int[] changeCoins;
+    private final double[] meanChange;
+    private final double[] medianChange;
+    private final int[] advancing;
+    private final int[] declining;
+
+    private MarketAggregates(int coins, double totalMarketCap, double totalVolume24h, int[] bucketCoins,
+                             double[] bucketMarketCap, double[] bucketVolume24h, int[] changeCoins,
+                             double[] meanChange, double[] medianChange, int[] advancing, int[] declining) {
+        this.coins = coins;
+        this.totalMarketCap = totalMarketCap;
+        this.totalVolume24h = totalVolume24h;
+        this.bucketCoins = bucketCoins;
+        this.bucketMarketCap = bucketMarketCap;
+        this.bucketVolume24h = bucketVolume24h;
+        this.changeCoins = changeCoins;
+        this.meanChange = meanChange;
+        this.medianChange = medianChange;
+        this.advancing = advancing;
+        this.declining = declining;
+    }
+
+    static MarketAggregates compute(int size, int[] ranks, QuoteColumns quotes) {
+        int coins = 0;
+        double totalMarketCap = 0;
+        double totalVolume24h = 0;
+        int[] bucketCoins = new int[RANK_BUCKETS.length];
+        double[] bucketMarketCap = new double[RANK_BUCKETS.length];
+        double[] bucketVolume24h = new double[RANK_BUCKETS.length];
+        // Medians need the values themselves; they are collected in the same pass and selected afterwards.
+        double[][] changes = new double[CHANGES.length][size];
+        int[] changeCoins = new int[CHANGES.length];
+        double[] changeSums = new double[CHANGES.length];
+        int[] advancing = new int[CHANGES.length];
+        int[] declining = new int[CHANGES.length];
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (!quotes.hasQuote(ordinal)) {
+                continue;
+            }
+            coins++;
+            double marketCap = quotes.marketCap(ordinal);
+            double volume24h = quotes.volume24h(ordinal);
+            if (!Double.isNaN(marketCap)) {
+                totalMarketCap += marketCap;
+            }
+            if (!Double.isNaN(volume24h)) {
+                totalVolume24h += volume24h;
+            }
+            for (int bucket = 0; bucket < RANK_BUCKETS.length; bucket++) {
+                if (ranks[ordinal] <= RANK_BUCKETS[bucket]) {
+                    bucketCoins[bucket]++;
+                    bucketMarketCap[bucket] += Double.isNaN(marketCap) ? 0 : marketCap;
+                    bucketVolume24h[bucket] += Double.isNaN(volume24h) ? 0 : volume24h;
+                }
+            }
+            for (int i = 0; i < CHANGES.length; i++) {
+                double change = quotes.get(CHANGES[i], ordinal);
+                if (Double.isNaN(change)) {
+                    continue;
+                }
+                changes[i][changeCoins[i]++] = change;
+                changeSums[i] += change;
+                if (change > 0) {
+                    advancing[i]++;
+                } else if (change < 0) {
+                    declining[i]++;
+                }
+            }
+        }
+
+        double[] meanChange = new double[CHANGES.length];
+        double[] medianChange = new double[CHANGES.length];
+        for (int i = 0; i < CHANGES.length; i++) {
+            meanChange[i] = changeCoins[i] > 0 ? changeSums[i] / changeCoins[i] : Double.NaN;
+            medianChange[i] = median(changes[i], changeCoins[i]);
+        }
+        return new MarketAggregates(coins, totalMarketCap, totalVolume24h, bucketCoins, bucketMarketCap,
+                bucketVolume24h, changeCoins, meanChange, medianChange, advancing, declining);
+    }
+
+    private static double median(double[] values, int count) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        Arrays.sort(values, 0, count);
+        return count % 2 == 1 ? values[count / 2] : (values[count / 2 - 1] + values[count / 2]) / 2;
+    }
+
+    /**
+     * Number of coins with a quote in this currency.
+     */
+    public int getCoins() {
+        return coins;
+    }
+
+    public double getTotalMarketCap() {
+        return totalMarketCap;
+    }
+
+    public double getTotalVolume24h() {
+        return totalVolume24h;
+    }
+
+    /**
+     * Returns {@code marketCap} as a percentage of the total market cap, or {@code NaN} when either is unknown.
+     */
+    public double dominance(double marketCap) {
+        return totalMarketCap > 0 ? marketCap / totalMarketCap * 100 : Double.NaN;
+    }
+
+    /**
+     * Returns the rank cut-offs of the top-N buckets, e.g. 10 for the top 10 coins.
+     */
+    public static int[] rankBuckets() {
+        return RANK_BUCKETS.clone();
+    }
+
+    public int getBucketCoins(int bucket) {
+        return bucketCoins[bucket];
+    }
+
+    public double getBucketMarketCap(int bucket) {
+        return bucketMarketCap[bucket];
+    }
+
+    public double getBucketVolume24h(int bucket) {
+        return bucketVolume24h[bucket];
+    }
+
+    /**
+     * Number of coins reporting {@code change}, one of the percent change fields.
+     */
+    public int getChangeCoins(Field change) {
+        return changeCoins[changeIndex(change)];
+    }
+
+    public double getMeanChange(Field change) {
+        return meanChange[changeIndex(change)];
+    }
+
+    public double getMedianChange(Field change) {
+        return medianChange[changeIndex(change)];
+    }
+
+    public int getAdvancing(Field change) {
+        return advancing[changeIndex(change)];
+    }
+
+    public int getDeclining(Field change) {
+        return declining[changeIndex(change)];
+    }
+
+    private static int changeIndex(Field change) {
+        if (!change.isPercent()) {
+            throw new IllegalArgumentException(change.key() + " is not a percent change");
+        }
+        return change.ordinal() - Field.PERCENT_CHANGE_1H.ordinal();
+    }
+}
@@ -0,0 +1,168 @@
+package com.cuius.mcpserver.cache;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Case-insensitive substring index over coin names. Names are normalized once at build time and
+ * every distinct trigram maps to the ascending ordinals of the names containing it, so a query of
+ * three or more characters only verifies the coins sharing all of its trigrams.
+ */
+public final class NameSearchIndex {
+    static final int GRAM = 3;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final String[] normalizedNames;
+    private final Map<Long, int[]> postings;
+
+    private NameSearchIndex(String[] normalizedNames, Map<Long, int[]> postings) {
+        this.normalizedNames = normalizedNames;
+        this.postings = postings;
+    }
+
+    public static NameSearchIndex build(String[] names) {
+        String[] normalizedNames = new String[names.length];
+        Map<Long, IntList> grams = new HashMap<>();
+        for (int ordinal = 0; ordinal < names.length; ordinal++) {
+            if (names[ordinal] == null) {
+                continue;
+            }
+            String normalized = normalize(names[ordinal]);
+            normalizedNames[ordinal] = normalized;
+            for (int i = 0; i + GRAM <= normalized.length(); i++) {
+                // Ordinals are visited in ascending order, so a repeated gram only needs a tail check.
+                IntList list = grams.computeIfAbsent(gramKey(normalized, i), key -> new IntList());
+                list.addIfNotLast(ordinal);
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, list) -> postings.put(gram, list.toArray()));
+        return new NameSearchIndex(normalizedNames, postings);
+    }
+
+    public static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the index of {@code names}, given that only the {@code changed} ordinals (ascending) and
+     * ordinals past the end of {@code names} can differ from the names this index was built from. Only
+     * the trigrams of names that actually changed are re-listed; returns this index when none did.
+     */
+    NameSearchIndex patch(String[] names, int[] changed) {
+        String[] patchedNames = normalizedNames.length == names.length ? normalizedNames : Arrays.copyOf(normalizedNames, names.length);
+        BitSet renamed = new BitSet();
+        Set<Long> affected = new HashSet<>();
+        Map<Long, IntList> added = new HashMap<>();
+        for (int ordinal : changed) {
+            String before = ordinal < normalizedNames.length ? normalizedNames[ordinal] : null;
+            String after = names[ordinal] != null ? normalize(names[ordinal]) : null;
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            if (patchedNames == normalizedNames) {
+                patchedNames = normalizedNames.clone();
+            }
+            patchedNames[ordinal] = after;
+            renamed.set(ordinal);
+            addGrams(before, affected);
+            for (int i = 0; after != null && i + GRAM <= after.length(); i++) {
+                affected.add(gramKey(after, i));
+                added.computeIfAbsent(gramKey(after, i), key -> new IntList()).addIfNotLast(ordinal);
+            }
+        }
+        for (int ordinal = names.length; ordinal < normalizedNames.length; ordinal++) {
+            renamed.set(ordinal);
+            addGrams(normalizedNames[ordinal], affected);
+        }
+        if (patchedNames == normalizedNames) {
+            return this;
+        }
+
+        Map<Long, int[]> patchedPostings = affected.isEmpty() ? postings : new HashMap<>(postings);
+        for (Long gram : affected) {
+            int[] list = IntList.patch(postings.getOrDefault(gram, NO_POSTINGS), renamed, added.get(gram));
+            if (list.length == 0) {
+                patchedPostings.remove(gram);
+            } else {
+                patchedPostings.put(gram, list);
+            }
+        }
+        return new NameSearchIndex(patchedNames, patchedPostings);
+    }
+
+    private static void addGrams(String normalized, Set<Long> grams) {
+        for (int i = 0; normalized != null && i + GRAM <= normalized.length(); i++) {
+            grams.add(gramKey(normalized, i));
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ordinals, in ascending order, whose name contains {@code query}.
+     */
+    public int[] search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.length() < GRAM) {
+            return scan(normalizedQuery, limit);
+        }
+
+        int[][] lists = new int[normalizedQuery.length() - GRAM + 1][];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.getOrDefault(gramKey(normalizedQuery, i), NO_POSTINGS);
+            if (lists[i].length == 0) {
+                return NO_POSTINGS;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] matches = new int[Math.min(limit, lists[0].length)];
+        int found = 0;
+        for (int candidate : lists[0]) {
+            if (found == matches.length) {
+                break;
+            }
+            if (inAll(lists, candidate) && normalizedNames[candidate].contains(normalizedQuery)) {
+                matches[found++] = candidate;
+            }
+        }
+        return found == matches.length ? matches : Arrays.copyOf(matches, found);
+    }
+
+    private int[] scan(String normalizedQuery, int limit) {
+        IntList matches = new IntList();
+        for (int ordinal = 0; ordinal < normalizedNames.length && matches.size() < limit; ordinal++) {
+            if (normalizedNames[ordinal] != null && normalizedNames[ordinal].contains(normalizedQuery)) {
+                matches.add(ordinal);
+            }
+        }
+        return matches.toArray();
+    }
+
+    private static boolean inAll(int[][] lists, int candidate) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i], candidate) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long gramKey(String value, int offset) {
+        return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    public int size() {
+        return normalizedNames.length;
+    }
+
+    public int gramCount() {
+        return postings.size();
+    }
+}
@@ -0,0 +1,304 @@
+package com.cuius.mcpserver.cache;
+
+import com.cuius.mcpserver.dto.Quote;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Struct-of-arrays store for one quote currency, indexed by snapshot ordinal. Missing values are
+ * stored as {@code NaN}; {@link #hasQuote(int)} tells whether the coin had a quote at all.
+ */
+public final class QuoteColumns {
+    /**
+     * The numeric quote columns, keyed by their name in the API response.
+     */
+    public enum Field {
+        PRICE("price"),
+        MARKET_CAP("market_cap"),
+        VOLUME_24H("volume_24h"),
+        PERCENT_CHANGE_1H("percent_change_1h"),
+        PERCENT_CHANGE_24H("percent_change_24h"),
+        PERCENT_CHANGE_7D("percent_change_7d"),
+        PERCENT_CHANGE_30D("percent_change_30d");
+
+        private final String key;
+
+        Field(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public boolean isPercent() {
+            return compareTo(PERCENT_CHANGE_1H) >= 0;
+        }
+
+        /**
+         * Returns the field named {@code key} (case-insensitive), or {@code null} when there is none.
+         */
+        public static Field fromKey(String key) {
+            String normalized = key.trim().toLowerCase(Locale.ROOT);
+            for (Field field : values()) {
+                if (field.key.equals(normalized)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final BitSet present;
+    private final double[] price;
+    private final double[] marketCap;
+    private final double[] volume24h;
+    private final double[] percentChange1h;
+    private final double[] percentChange24h;
+    private final double[] percentChange7d;
+    private final double[] percentChange30d;
+    // Built on first use. An index only depends on the immutable column, so a racing build is harmless,
+    // and columns shared by a delta refresh keep their indexes.
+    private final AtomicReferenceArray<ColumnIndex> indexes = new AtomicReferenceArray<>(Field.values().length);
+
+    QuoteColumns(BitSet present, double[] price, double[] marketCap, double[] volume24h,
+            double[] percentChange1h, double[] percentChange24h, double[] percentChange7d,
+            double[] percentChange30d) {
+        this.present = present;
+        this.price = price;
+        this.marketCap = marketCap;
+        this.volume24h = volume24h;
+        this.percentChange1h = percentChange1h;
+        this.percentChange24h = percentChange24h;
+        this.percentChange7d = percentChange7d;
+        this.percentChange30d = percentChange30d;
+    }
+
+    public boolean hasQuote(int ordinal) {
+        return present.get(ordinal);
+    }
+
+    public double price(int ordinal) {
+        return price[ordinal];
+    }
+
+    public double marketCap(int ordinal) {
+        return marketCap[ordinal];
+    }
+
+    public double volume24h(int ordinal) {
+        return volume24h[ordinal];
+    }
+
+    public double percentChange1h(int ordinal) {
+        return percentChange1h[ordinal];
+    }
+
+    public double percentChange24h(int ordinal) {
+        return percentChange24h[ordinal];
+    }
+
+    public double percentChange7d(int ordinal) {
+        return percentChange7d[ordinal];
+    }
+
+    public double percentChange30d(int ordinal) {
+        return percentChange30d[ordinal];
+    }
+
+    public double get(Field field, int ordinal) {
+        return column(field)[ordinal];
+    }
+
+    int size() {
+        return price.length;
+    }
+
+    ColumnIndex index(Field field) {
+        ColumnIndex index = indexes.get(field.ordinal());
+        if (index == null) {
+            index = ColumnIndex.build(column(field));
+            indexes.set(field.ordinal(), index);
+        }
+        return index;
+    }
+
+    private double[] column(Field field) {
+        return switch (field) {
+            case PRICE -> price;
+            case MARKET_CAP -> marketCap;
+            case VOLUME_24H -> volume24h;
+            case PERCENT_CHANGE_1H -> percentChange1h;
+            case PERCENT_CHANGE_24H -> percentChange24h;
+            case PERCENT_CHANGE_7D -> percentChange7d;
+            case PERCENT_CHANGE_30D -> percentChange30d;
+        };
+    }
+
+    static double valueOf(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    static final class Builder {
+        private final BitSet present = new BitSet();
+        private double[] price;
+        private double[] marketCap;
+        private double[] volume24h;
+        private double[] percentChange1h;
+        private double[] percentChange24h;
+        private double[] percentChange7d;
+        private double[] percentChange30d;
+        private int filled;
+
+        Builder(int capacity) {
+            price = new double[capacity];
+            marketCap = new double[capacity];
+            volume24h = new double[capacity];
+            percentChange1h = new double[capacity];
+            percentChange24h = new double[capacity];
+            percentChange7d = new double[capacity];
+            percentChange30d = new double[capacity];
+        }
+
+        /**
+         * Sets row {@code row}; rows skipped over, and rows never set, read as missing.
+         */
+        void set(int row, Quote quote) {
+            fill(row + 1);
+            present.set(row, quote != null);
+            price[row] = quote != null ? valueOf(quote.getPrice()) : Double.NaN;
+            marketCap[row] = quote != null ? valueOf(quote.getMarketCap()) : Double.NaN;
+            volume24h[row] = quote != null ? valueOf(quote.getVolume24h()) : Double.NaN;
+            percentChange1h[row] = quote != null ? valueOf(quote.getPercentChange1h()) : Double.NaN;
+            percentChange24h[row] = quote != null ? valueOf(quote.getPercentChange24h()) : Double.NaN;
+            percentChange7d[row] = quote != null ? valueOf(quote.getPercentChange7d()) : Double.NaN;
+            percentChange30d[row] = quote != null ? valueOf(quote.getPercentChange30d()) : Double.NaN;
+        }
+
+        boolean hasQuote(int row) {
+            return present.get(row);
+        }
+
+        // Extends the columns to rows rows, padding with NaN.
+        private void fill(int rows) {
+            if (rows <= filled) {
+                return;
+            }
+            if (rows > price.length) {
+                grow(Math.max(16, Math.max(rows, price.length * 2)));
+            }
+            for (double[] column : new double[][]{price, marketCap, volume24h, percentChange1h,
+                    percentChange24h, percentChange7d, percentChange30d}) {
+                Arrays.fill(column, filled, rows, Double.NaN);
+            }
+            filled = rows;
+        }
+
+        private void grow(int capacity) {
+            price = Arrays.copyOf(price, capacity);
+            marketCap = Arrays.copyOf(marketCap, capacity);
+            volume24h = Arrays.copyOf(volume24h, capacity);
+            percentChange1h = Arrays.copyOf(percentChange1h, capacity);
+            percentChange24h = Arrays.copyOf(percentChange24h, capacity);
+            percentChange7d = Arrays.copyOf(percentChange7d, capacity);
+            percentChange30d = Arrays.copyOf(percentChange30d, capacity);
+        }
+
+        /**
+         * Trims or pads the columns to {@code size} rows, reordering rows so that row {@code order[i]}
+         * becomes row {@code i} when an order is given.
+         */
+        QuoteColumns build(int size, int[] order) {
+            fill(size);
+            BitSet orderedPresent = present;
+            if (order != null) {
+                orderedPresent = new BitSet(size);
+                for (int i = 0; i < size; i++) {
+                    orderedPresent.set(i, present.get(order[i]));
+                }
+            }
+            return new QuoteColumns(orderedPresent,
+                    permute(price, size, order),
+                    permute(marketCap, size, order),
+                    permute(volume24h, size, order),
+                    permute(percentChange1h, size, order),
+                    permute(percentChange24h, size, order),
+                    permute(percentChange7d, size, order),
+                    permute(percentChange30d, size, order));
+        }
+
+        /**
+         * Like {@link #build(int, int[])}, but only reads the given {@code changed} ordinals and shares every
+         * column of {@code previous} they leave untouched; returns {@code previous} itself when nothing
+         * differs. Every ordinal past the end of {@code previous} must be listed as changed.
+         */
+        QuoteColumns merge(QuoteColumns previous, int size, int[] changed, int[] order) {
+            if (previous == null) {
+                return build(size, order);
+            }
+            fill(size);
+            BitSet mergedPresent = previous.present;
+            if (previous.size() > size) {
+                mergedPresent = (BitSet) previous.present.clone();
+                mergedPresent.clear(size, previous.size());
+            }
+            for (int ordinal : changed) {
+                boolean value = present.get(order != null ? order[ordinal] : ordinal);
+                if (value != mergedPresent.get(ordinal)) {
+                    if (mergedPresent == previous.present) {
+                        mergedPresent = (BitSet) previous.present.clone();
+                    }
+                    mergedPresent.set(ordinal, value);
+                }
+            }
+            QuoteColumns merged = new QuoteColumns(mergedPresent,
+                    QuoteColumns.merge(previous.price, price, size, changed, order),
+                    QuoteColumns.merge(previous.marketCap, marketCap, size, changed, order),
+                    QuoteColumns.merge(previous.volume24h, volume24h, size, changed, order),
+                    QuoteColumns.merge(previous.percentChange1h, percentChange1h, size, changed, order),
+                    QuoteColumns.merge(previous.percentChange24h, percentChange24h, size, changed, order),
+                    QuoteColumns.merge(previous.percentChange7d, percentChange7d, size, changed, order),
+                    QuoteColumns.merge(previous.percentChange30d, percentChange30d, size, changed, order));
+            return merged.sharesColumnsWith(previous) ? previous : merged;
+        }
+    }
+
+    private boolean sharesColumnsWith(QuoteColumns other) {
+        return present == other.present && price == other.price && marketCap == other.marketCap
+                && volume24h == other.volume24h && percentChange1h == other.percentChange1h
+                && percentChange24h == other.percentChange24h && percentChange7d == other.percentChange7d
+                && percentChange30d == other.percentChange30d;
+    }
+
+    /**
+     * Copies {@code previous} on the first changed ordinal whose value (read through {@code order})
+     * differs, so an untouched column of the same {@code size} is returned as is.
+     */
+    static double[] merge(double[] previous, double[] column, int size, int[] changed, int[] order) {
+        double[] merged = previous.length == size ? previous : Arrays.copyOf(previous, size);
+        for (int ordinal : changed) {
+            double value = column[order != null ? order[ordinal] : ordinal];
+            if (Double.compare(value, merged[ordinal]) != 0) {
+                if (merged == previous) {
+                    merged = previous.clone();
+                }
+                merged[ordinal] = value;
+            }
+        }
+        return merged;
+    }
+
+    static double[] permute(double[] column, int size, int[] order) {
+        if (order == null) {
+            return Arrays.copyOf(column, size);
+        }
+        double[] ordered = new double[size];
+        for (int i = 0; i < size; i++) {
+            ordered[i] = column[order[i]];
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,233 @@
+package com.cuius.mcpserver.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed-capacity ring buffer of (timestamp, price, 24h volume, market cap) samples per coin, filled
+ * from every published snapshot. Samples live off-heap in direct buffers, one fixed-size slot per
+ * coin id, so days of history for thousands of coins add little to the heap the GC has to scan.
+ *
+ * <p>A coin is only sampled when its {@code last_updated} timestamp moved since its newest sample,
+ * so refreshes that return unchanged data do not fill the buffer with duplicates. Slots are never
+ * released; a coin that drops out of the listings keeps its history.
+ *
+ * <p>Samples are taken in each snapshot's default quote currency. A coin's history restarts when that
+ * currency changes, so one series never mixes currencies.
+ */
+@Component
+public class QuoteHistory {
+    static final int SAMPLE_BYTES = 4 * 8;
+    static final int SLOTS_PER_SEGMENT = 256;
+
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private int[] heads = new int[0];
+    private int[] counts = new int[0];
+    private String[] currencies = new String[0];
+
+    @Autowired
+    public QuoteHistory(@Value("${coinmarketcap.history.capacity:0}") int capacity, CryptoSnapshotStore snapshotStore) {
+        this(capacity);
+        if (capacity > 0) {
+            snapshotStore.addPublishListener(this::record);
+        }
+    }
+
+    public QuoteHistory(int capacity) {
+        if (capacity < 0 || (long) capacity * SAMPLE_BYTES * SLOTS_PER_SEGMENT > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid history capacity " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public static QuoteHistory disabled() {
+        return new QuoteHistory(0);
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int coinCount() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a sample for every coin in {@code snapshot} that has an id and a quote, stamped with the
+     * entry's {@code last_updated} time or, when it has none, the snapshot's creation time.
+     */
+    public void record(CryptoSnapshot snapshot) {
+        if (capacity == 0) {
+            return;
+        }
+
+        QuoteColumns quotes = snapshot.getQuotes();
+        String currency = snapshot.getDefaultCurrency();
+        long createdAt = snapshot.getCreatedAt().toEpochMilli();
+        lock.writeLock().lock();
+        try {
+            for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+                long id = snapshot.getId(ordinal);
+                if (id == CryptoSnapshot.NO_ID || !quotes.hasQuote(ordinal)) {
+                    continue;
+                }
+                long timestamp = snapshot.getLastUpdated(ordinal);
+                if (timestamp == CryptoSnapshot.NO_TIMESTAMP) {
+                    timestamp = createdAt;
+                }
+
+                int slot = slotFor(id);
+                if (!currency.equals(currencies[slot])) {
+                    heads[slot] = 0;
+                    counts[slot] = 0;
+                    currencies[slot] = currency;
+                }
+                // Also drops samples from a snapshot published out of order.
+                if (counts[slot] > 0 && timestamp <= timestampAt(slot, counts[slot] - 1)) {
+                    continue;
+                }
+                int index = (heads[slot] + counts[slot]) % capacity;
+                if (counts[slot] == capacity) {
+                    heads[slot] = (heads[slot] + 1) % capacity;
+                } else {
+                    counts[slot]++;
+                }
+                ByteBuffer segment = segments.get(slot / SLOTS_PER_SEGMENT);
+                int offset = offset(slot, index);
+                segment.putLong(offset, timestamp)
+                        .putDouble(offset + 8, quotes.price(ordinal))
+                        .putDouble(offset + 16, quotes.volume24h(ordinal))
+                        .putDouble(offset + 24, quotes.marketCap(ordinal));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} of the most recent samples for coin {@code id}, oldest first.
+     */
+    public Series series(long id, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            if (slot == null || limit <= 0) {
+                return Series.EMPTY;
+            }
+
+            int size = Math.min(limit, counts[slot]);
+            int skip = counts[slot] - size;
+            ByteBuffer segment = segments.get(slot / SLOTS_PER_SEGMENT);
+            Series series = new Series(size, currencies[slot]);
+            for (int i = 0; i < size; i++) {
+                int offset = offset(slot, (heads[slot] + skip + i) % capacity);
+                series.timestamps[i] = segment.getLong(offset);
+                series.prices[i] = segment.getDouble(offset + 8);
+                series.volumes24h[i] = segment.getDouble(offset + 16);
+                series.marketCaps[i] = segment.getDouble(offset + 24);
+            }
+            return series;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int slotFor(long id) {
+        Integer slot = slots.get(id);
+        if (slot != null) {
+            return slot;
+        }
+
+        int next = slots.size();
+        if (next == segments.size() * SLOTS_PER_SEGMENT) {
+            segments.add(ByteBuffer.allocateDirect(SLOTS_PER_SEGMENT * capacity * SAMPLE_BYTES));
+            heads = Arrays.copyOf(heads, segments.size() * SLOTS_PER_SEGMENT);
+            counts = Arrays.copyOf(counts, segments.size() * SLOTS_PER_SEGMENT);
+            currencies = Arrays.copyOf(currencies, segments.size() * SLOTS_PER_SEGMENT);
+        }
+        slots.put(id, next);
+        return next;
+    }
+
+    private long timestampAt(int slot, int position) {
+        return segments.get(slot / SLOTS_PER_SEGMENT).getLong(offset(slot, (heads[slot] + position) % capacity));
+    }
+
+    private int offset(int slot, int index) {
+        return ((slot % SLOTS_PER_SEGMENT) * capacity + index) * SAMPLE_BYTES;
+    }
+
+    /**
+     * Samples copied out of the ring, oldest first. Missing values are {@code NaN}.
+     */
+    public static final class Series {
+        static final Series EMPTY = new Series(0, CryptoSnapshot.QUOTE_CURRENCY);
+
+        private final String currency;
+        private final long[] timestamps;
+        private final double[] prices;
+        private final double[] volumes24h;
+        private final double[] marketCaps;
+
+        private Series(int size, String currency) {
+            this.currency = currency;
+            timestamps = new long[size];
+            prices = new double[size];
+            volumes24h = new double[size];
+            marketCaps = new double[size];
+        }
+
+        public int size() {
+            return timestamps.length;
+        }
+
+        public boolean isEmpty() {
+            return timestamps.length == 0;
+        }
+
+        /**
+         * The quote currency the prices, market caps and volumes are in.
+         */
+        public String getCurrency() {
+            return currency;
+        }
+
+        public long timestamp(int index) {
+            return timestamps[index];
+        }
+
+        public double price(int index) {
+            return prices[index];
+        }
+
+        public double volume24h(int index) {
+            return volumes24h[index];
+        }
+
+        public double marketCap(int index) {
+            return marketCaps[index];
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.cuius.mcpserver.cache;
+
+import com.cuius.mcpserver.cache.QuoteColumns.Field;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Range filters on quote fields, an optional sort field and a limit, evaluated against the sorted
+ * column indexes of a {@link QuoteColumns}. Every range is resolved with two binary searches; only the
+ * coins inside the narrowest one are checked against the others, so a selective filter never scans
+ * the whole snapshot. Coins missing a filtered or sorted value never match.
+ */
+public final class QuoteQuery {
+    private static final Pattern CONDITION = Pattern.compile("\\s*([A-Za-z0-9_]+)\\s*(>=|<=|>|<|=)\\s*(\\S+)\\s*");
+    private static final Pattern SEPARATOR = Pattern.compile(",|\\s+(?i:and)\\s+");
+
+    private final Map<Field, Range> ranges = new EnumMap<>(Field.class);
+    private Field sortField;
+    private boolean descending;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Parses conditions such as {@code "market_cap >= 1e9, percent_change_7d > 0"}, separated by commas
+     * or {@code and}. Conditions on the same field are intersected.
+     *
+     * @throws IllegalArgumentException naming the first condition that cannot be parsed
+     */
+    public static QuoteQuery parse(String filters) {
+        QuoteQuery query = new QuoteQuery();
+        if (filters == null || filters.isBlank()) {
+            return query;
+        }
+
+        for (String condition : SEPARATOR.split(filters.trim())) {
+            Matcher matcher = CONDITION.matcher(condition);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("cannot parse condition '" + condition.trim() +
+                        "'; expected <field> <op> <number>, e.g. market_cap>=1e9");
+            }
+            Field field = Field.fromKey(matcher.group(1));
+            if (field == null) {
+                throw new IllegalArgumentException("unknown field '" + matcher.group(1) + "'; expected one of " + fieldKeys());
+            }
+            double value;
+            try {
+                value = Double.parseDouble(matcher.group(3));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'" + matcher.group(3) + "' is not a number");
+            }
+            if (Double.isNaN(value)) {
+                throw new IllegalArgumentException("'" + matcher.group(3) + "' is not a number");
+            }
+            switch (matcher.group(2)) {
+                case ">" -> query.where(field, value, false, Double.POSITIVE_INFINITY, true);
+                case ">=" -> query.where(field, value, true, Double.POSITIVE_INFINITY, true);
+                case "<" -> query.where(field, Double.NEGATIVE_INFINITY, true, value, false);
+                case "<=" -> query.where(field, Double.NEGATIVE_INFINITY, true, value, true);
+                default -> query.where(field, value, true, value, true);
+            }
+        }
+        return query;
+    }
+
+    public static String fieldKeys() {
+        return Arrays.stream(Field.values()).map(Field::key).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Restricts {@code field} to the values between {@code min} and {@code max}.
+     */
+    public QuoteQuery where(Field field, double min, boolean minInclusive, double max, boolean maxInclusive) {
+        Range range = new Range(min, minInclusive, max, maxInclusive);
+        ranges.merge(field, range, Range::intersect);
+        return this;
+    }
+
+    /**
+     * Orders the matches by {@code field}; without a sort field they stay in rank order.
+     */
+    public QuoteQuery sortBy(Field field, boolean descending) {
+        this.sortField = field;
+        this.descending = descending;
+        return this;
+    }
+
+    public QuoteQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public Field getSortField() {
+        return sortField;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Returns the filtered and sorted fields, in declaration order.
+     */
+    public Set<Field> fields() {
+        Set<Field> fields = ranges.isEmpty() ? EnumSet.noneOf(Field.class) : EnumSet.copyOf(ranges.keySet());
+        if (sortField != null) {
+            fields.add(sortField);
+        }
+        return fields;
+    }
+
+    public boolean hasFilters() {
+        return !ranges.isEmpty();
+    }
+
+    public Result run(QuoteColumns quotes) {
+        Range sortRange = sortField != null ? ranges.get(sortField) : null;
+        if (sortField != null && ranges.size() == (sortRange != null ? 1 : 0)) {
+            // Every coin in the sort index (or in its one range) matches, so the result is read straight off one of its ends.
+            ColumnIndex index = quotes.index(sortField);
+            int low = sortRange != null ? sortRange.low(index) : 0;
+            int high = sortRange != null ? Math.max(low, sortRange.high(index)) : index.size();
+            return new Result(take(quotes, index.ordinals(), low, high, Math.min(limit, high - low)), high - low);
+        }
+
+        // Drive from the narrowest range; without ranges every quoted coin is a candidate.
+        Field driver = null;
+        int driverLow = 0;
+        int driverHigh = 0;
+        for (Map.Entry<Field, Range> entry : ranges.entrySet()) {
+            ColumnIndex index = quotes.index(entry.getKey());
+            int low = entry.getValue().low(index);
+            int high = entry.getValue().high(index);
+            if (driver == null || high - low < driverHigh - driverLow) {
+                driver = entry.getKey();
+                driverLow = low;
+                driverHigh = Math.max(low, high);
+            }
+        }
+
+        IntList matches;
+        if (driver == null) {
+            matches = new IntList(quotes.size());
+            for (int ordinal = 0; ordinal < quotes.size(); ordinal++) {
+                if (quotes.hasQuote(ordinal)) {
+                    matches.add(ordinal);
+                }
+            }
+        } else {
+            ColumnIndex index = quotes.index(driver);
+            matches = new IntList(driverHigh - driverLow);
+            for (int position = driverLow; position < driverHigh; position++) {
+                int ordinal = index.ordinal(position);
+                if (matchesAll(quotes, ordinal, driver)) {
+                    matches.add(ordinal);
+                }
+            }
+        }
+
+        return new Result(order(quotes, matches, driver), matches.size());
+    }
+
+    private boolean matchesAll(QuoteColumns quotes, int ordinal, Field driver) {
+        for (Map.Entry<Field, Range> entry : ranges.entrySet()) {
+            if (entry.getKey() != driver && !entry.getValue().contains(quotes.get(entry.getKey(), ordinal))) {
+                return false;
+            }
+        }
+        return sortField == null || sortField == driver || !Double.isNaN(quotes.get(sortField, ordinal));
+    }
+
+    private int[] order(QuoteColumns quotes, IntList matches, Field driver) {
+        int count = Math.min(limit, matches.size());
+        if (sortField == null) {
+            // Ordinals are ranks; only the driver's value order needs undoing.
+            int[] all = matches.toArray();
+            if (driver != null) {
+                Arrays.sort(all);
+            }
+            return Arrays.copyOf(all, count);
+        }
+
+        int[] sorted;
+        if (sortField == driver) {
+            sorted = matches.toArray();
+        } else {
+            ColumnIndex index = quotes.index(sortField);
+            int[] positions = new int[matches.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = index.position(matches.get(i));
+            }
+            Arrays.sort(positions);
+            sorted = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                sorted[i] = index.ordinal(positions[i]);
+            }
+        }
+        return take(quotes, sorted, 0, sorted.length, count);
+    }
+
+    // Returns the first or, when descending, the last count of the sortField-ordered ordinals in [from, to).
+    private int[] take(QuoteColumns quotes, int[] sorted, int from, int to, int count) {
+        if (!descending) {
+            return Arrays.copyOfRange(sorted, from, from + count);
+        }
+
+        // Walk runs of equal values from the top, each in ascending ordinal order, so ties stay in rank order.
+        int[] ordinals = new int[count];
+        int filled = 0;
+        for (int end = to; filled < count; ) {
+            int start = end - 1;
+            double value = quotes.get(sortField, sorted[start]);
+            while (start > from && Double.compare(quotes.get(sortField, sorted[start - 1]), value) == 0) {
+                start--;
+            }
+            for (int i = start; i < end && filled < count; i++) {
+                ordinals[filled++] = sorted[i];
+            }
+            end = start;
+        }
+        return ordinals;
+    }
+
+    /**
+     * Canonical form of the filters, sort and limit: equal for queries that select the same coins.
+     */
+    @Override
+    public String toString() {
+        return describeFilters() + (sortField != null ? " sort " + sortField.key() + (descending ? " desc" : " asc") : "") +
+               (limit != Integer.MAX_VALUE ? " limit " + limit : "");
+    }
+
+    /**
+     * Renders the filters in a normalized {@code field>=value} form.
+     */
+    public String describeFilters() {
+        return ranges.entrySet().stream()
+                .map(entry -> entry.getValue().describe(entry.getKey().key()))
+                .collect(Collectors.joining(", "));
+    }
+
+    public static final class Result {
+        private final int[] ordinals;
+        private final int matches;
+
+        private Result(int[] ordinals, int matches) {
+            this.ordinals = ordinals;
+            this.matches = matches;
+        }
+
+        /**
+         * The matching ordinals in result order, at most the query's limit of them.
+         */
+        public int[] ordinals() {
+            return ordinals;
+        }
+
+        /**
+         * The number of matching coins before the limit was applied.
+         */
+        public int matches() {
+            return matches;
+        }
+    }
+
+    private static final class Range {
+        private final double min;
+        private final boolean minInclusive;
+        private final double max;
+        private final boolean maxInclusive;
+
+        private Range(double min, boolean minInclusive, double max, boolean maxInclusive) {
+            this.min = min;
+            this.minInclusive = minInclusive;
+            this.max = max;
+            this.maxInclusive = maxInclusive;
+        }
+
+        private Range intersect(Range other) {
+            double newMin = Math.max(min, other.min);
+            double newMax = Math.min(max, other.max);
+            boolean newMinInclusive = (min != newMin || minInclusive) && (other.min != newMin || other.minInclusive);
+            boolean newMaxInclusive = (max != newMax || maxInclusive) && (other.max != newMax || other.maxInclusive);
+            return new Range(newMin, newMinInclusive, newMax, newMaxInclusive);
+        }
+
+        private boolean contains(double value) {
+            return (minInclusive ? value >= min : value > min) && (maxInclusive ? value <= max : value < max);
+        }
+
+        private int low(ColumnIndex index) {
+            return minInclusive ? index.lowerBound(min) : index.upperBound(min);
+        }
+
+        private int high(ColumnIndex index) {
+            return maxInclusive ? index.upperBound(max) : index.lowerBound(max);
+        }
+
+        private String describe(String key) {
+            if (min == max && minInclusive && maxInclusive) {
+                return key + "=" + plain(min);
+            }
+            List<String> bounds = new ArrayList<>(2);
+            if (min != Double.NEGATIVE_INFINITY || max == Double.POSITIVE_INFINITY) {
+                bounds.add(key + (minInclusive ? ">=" : ">") + plain(min));
+            }
+            if (max != Double.POSITIVE_INFINITY) {
+                bounds.add(key + (maxInclusive ? "<=" : "<") + plain(max));
+            }
+            return String.join(", ", bounds);
+        }
+
+        private static String plain(double value) {
+            return Double.isInfinite(value) ? Double.toString(value) : BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+}
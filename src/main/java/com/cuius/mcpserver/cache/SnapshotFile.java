@@ -0,0 +1,269 @@
+package com.cuius.mcpserver.cache;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a {@link CryptoSnapshot}: a fixed header followed by each primitive column
+ * written back to back in ordinal order, then the names, symbols and tags as length-prefixed UTF-8. Reads
+ * map the file and bulk-copy each column straight into its array; the lookup indexes are rebuilt.
+ *
+ * <pre>
+ * int magic, int format, long version, long createdAtMillis, int size, int currencies
+ * long[size] ids, long[size] lastUpdated, int[size] ranks, double[size] circulating/total/max supply
+ * per currency: (int length, byte[length]) code, long[(size + 63) / 64] quote presence bits,
+ *               double[size] x 7 quote columns
+ * (int length, byte[length]) x size names, then symbols; length -1 is null
+ * per ordinal: int count, (int length, byte[length]) x count tags
+ * </pre>
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x434D4353; // "CMCS"
+    private static final int FORMAT = 4;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4;
+    private static final int QUOTE_COLUMNS = 7;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes {@code snapshot} to a sibling temp file and atomically moves it over {@code path}, so a
+     * crash mid-write never leaves a truncated snapshot behind.
+     */
+    public static void write(CryptoSnapshot snapshot, Path path) throws IOException {
+        int size = snapshot.size();
+        byte[][] names = new byte[size][];
+        byte[][] symbols = new byte[size][];
+        byte[][][] tags = new byte[size][][];
+        long stringBytes = 0;
+        for (int i = 0; i < size; i++) {
+            names[i] = utf8(snapshot.getName(i));
+            symbols[i] = utf8(snapshot.getSymbol(i));
+            stringBytes += 8L + (names[i] != null ? names[i].length : 0) + (symbols[i] != null ? symbols[i].length : 0);
+            List<String> coinTags = snapshot.getTags(i);
+            tags[i] = new byte[coinTags.size()][];
+            stringBytes += 4L;
+            for (int t = 0; t < tags[i].length; t++) {
+                tags[i][t] = utf8(coinTags.get(t));
+                stringBytes += 4L + tags[i][t].length;
+            }
+        }
+
+        int presentWords = (size + 63) / 64;
+        long currencyBytes = 0;
+        for (String currency : snapshot.getCurrencies()) {
+            currencyBytes += 4L + utf8(currency).length + presentWords * 8L + size * QUOTE_COLUMNS * 8L;
+        }
+
+        long totalBytes = HEADER_BYTES + size * (8L + 8L + 4L + 3 * 8L) + currencyBytes + stringBytes;
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(totalBytes));
+        buffer.putInt(MAGIC).putInt(FORMAT)
+                .putLong(snapshot.getVersion())
+                .putLong(snapshot.getCreatedAt().toEpochMilli())
+                .putInt(size)
+                .putInt(snapshot.getCurrencies().size());
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(snapshot.getId(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(snapshot.getLastUpdated(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(snapshot.getRank(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(snapshot.getCirculatingSupply(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(snapshot.getTotalSupply(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(snapshot.getMaxSupply(i));
+        }
+        for (String currency : snapshot.getCurrencies()) {
+            putStrings(buffer, new byte[][]{utf8(currency)});
+            putQuotes(buffer, snapshot.getQuotes(currency), size, presentWords);
+        }
+        putStrings(buffer, names);
+        putStrings(buffer, symbols);
+        for (byte[][] coinTags : tags) {
+            buffer.putInt(coinTags.length);
+            putStrings(buffer, coinTags);
+        }
+        buffer.flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static CryptoSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Truncated or corrupt snapshot file " + path, e);
+        }
+    }
+
+    private static CryptoSnapshot read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot file");
+        }
+        int format = buffer.getInt();
+        if (format != FORMAT) {
+            throw new IOException("Unsupported snapshot format " + format);
+        }
+        long version = buffer.getLong();
+        Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+        int size = buffer.getInt();
+        int currencies = buffer.getInt();
+        if (size < 0 || currencies < 1 || (long) size * (8 + 8 + 4 + 3 * 8 + currencies * QUOTE_COLUMNS * 8L) > buffer.remaining()) {
+            throw new IOException("Invalid snapshot size " + size + " with " + currencies + " currencies");
+        }
+
+        long[] ids = longs(buffer, size);
+        long[] lastUpdated = longs(buffer, size);
+        int[] ranks = new int[size];
+        buffer.asIntBuffer().get(ranks);
+        buffer.position(buffer.position() + size * 4);
+        double[] circulatingSupply = doubles(buffer, size);
+        double[] totalSupply = doubles(buffer, size);
+        double[] maxSupply = doubles(buffer, size);
+
+        Map<String, QuoteColumns> quotes = new LinkedHashMap<>();
+        for (int i = 0; i < currencies; i++) {
+            String currency = strings(buffer, 1)[0];
+            if (currency == null) {
+                throw new IOException("Missing quote currency");
+            }
+            long[] presentWords = longs(buffer, (size + 63) / 64);
+            quotes.put(currency, new QuoteColumns(BitSet.valueOf(presentWords),
+                    doubles(buffer, size), doubles(buffer, size), doubles(buffer, size), doubles(buffer, size),
+                    doubles(buffer, size), doubles(buffer, size), doubles(buffer, size)));
+        }
+
+        String[] names = strings(buffer, size);
+        String[] symbols = strings(buffer, size);
+        String[][] tags = new String[size][];
+        Map<String, String> tagNames = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / 4) {
+                throw new IOException("Invalid tag count " + count + " of snapshot entry " + i);
+            }
+            tags[i] = strings(buffer, count);
+            for (int t = 0; t < tags[i].length; t++) {
+                if (tags[i][t] == null) {
+                    throw new IOException("Missing tag of snapshot entry " + i);
+                }
+                tags[i][t] = tagNames.computeIfAbsent(tags[i][t], key -> key);
+            }
+        }
+        return CryptoSnapshot.restore(version, createdAt, ids, lastUpdated, names, symbols, ranks,
+                circulatingSupply, totalSupply, maxSupply, tags, Collections.unmodifiableMap(quotes));
+    }
+
+    private static void putQuotes(ByteBuffer buffer, QuoteColumns quotes, int size, int presentWords) {
+        BitSet present = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            present.set(i, quotes.hasQuote(i));
+        }
+        long[] packed = present.toLongArray();
+        for (int i = 0; i < presentWords; i++) {
+            buffer.putLong(i < packed.length ? packed[i] : 0L);
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(quotes.price(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(quotes.marketCap(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(quotes.volume24h(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(quotes.percentChange1h(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(quotes.percentChange24h(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(quotes.percentChange7d(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(quotes.percentChange30d(i));
+        }
+    }
+
+    private static long[] longs(ByteBuffer buffer, int size) {
+        long[] column = new long[size];
+        buffer.asLongBuffer().get(column);
+        buffer.position(buffer.position() + size * 8);
+        return column;
+    }
+
+    private static double[] doubles(ByteBuffer buffer, int size) {
+        double[] column = new double[size];
+        buffer.asDoubleBuffer().get(column);
+        buffer.position(buffer.position() + size * 8);
+        return column;
+    }
+
+    private static String[] strings(ByteBuffer buffer, int size) throws IOException {
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            int length = buffer.getInt();
+            // Checked before allocating, so a corrupt length cannot exhaust the heap.
+            if (length > buffer.remaining()) {
+                throw new IOException("Invalid string length " + length + " with " + buffer.remaining() + " bytes left");
+            }
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                values[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+
+    private static void putStrings(ByteBuffer buffer, byte[][] values) {
+        for (byte[] value : values) {
+            if (value == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(value.length).put(value);
+            }
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,187 @@
+package com.cuius.mcpserver.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index from tag to the ordinals of the coins carrying it, each posting kept as a
+ * {@link BitSet}. Tag expressions are an OR of AND groups and are answered with word-wise bitset
+ * intersections and unions, so no coin's tag list is scanned at query time.
+ */
+public final class TagIndex {
+    private static final Pattern OR = Pattern.compile("\\||\\s+(?i:or)\\s+");
+    private static final Pattern AND = Pattern.compile(",|&|\\s+(?i:and)\\s+");
+    private static final String[] NO_TAGS = new String[0];
+
+    private final Map<String, BitSet> postings;
+    private final String[] byFrequency;
+
+    private TagIndex(Map<String, BitSet> postings, String[] byFrequency) {
+        this.postings = postings;
+        this.byFrequency = byFrequency;
+    }
+
+    /**
+     * Indexes the normalized tags of every ordinal; {@code tags[ordinal]} may be empty but not null.
+     */
+    public static TagIndex build(String[][] tags) {
+        Map<String, BitSet> postings = new HashMap<>();
+        for (int ordinal = 0; ordinal < tags.length; ordinal++) {
+            for (String tag : tags[ordinal]) {
+                postings.computeIfAbsent(tag, key -> new BitSet(tags.length)).set(ordinal);
+            }
+        }
+
+        return new TagIndex(postings, byFrequency(postings));
+    }
+
+    /**
+     * Returns the index of {@code tags}, given that it was built from {@code previousTags} and only the
+     * {@code changed} ordinals and ordinals past the end of {@code tags} can differ. Only the postings of
+     * tags gained or lost are copied and updated; returns this index when no coin's tags changed.
+     */
+    TagIndex patch(String[][] previousTags, String[][] tags, int[] changed) {
+        Map<String, BitSet> patched = null;
+        Set<String> copied = new HashSet<>();
+        for (int ordinal : changed) {
+            String[] before = ordinal < previousTags.length ? previousTags[ordinal] : NO_TAGS;
+            if (Arrays.equals(before, tags[ordinal])) {
+                continue;
+            }
+            patched = patched != null ? patched : new HashMap<>(postings);
+            for (String tag : before) {
+                writable(patched, copied, tag).clear(ordinal);
+            }
+            for (String tag : tags[ordinal]) {
+                writable(patched, copied, tag).set(ordinal);
+            }
+        }
+        for (int ordinal = tags.length; ordinal < previousTags.length; ordinal++) {
+            for (String tag : previousTags[ordinal]) {
+                patched = patched != null ? patched : new HashMap<>(postings);
+                writable(patched, copied, tag).clear(ordinal);
+            }
+        }
+        if (patched == null) {
+            return this;
+        }
+        patched.values().removeIf(BitSet::isEmpty);
+        return new TagIndex(patched, byFrequency(patched));
+    }
+
+    // Postings are shared with the index being patched, so each one is copied before its first change.
+    private static BitSet writable(Map<String, BitSet> postings, Set<String> copied, String tag) {
+        if (copied.add(tag)) {
+            BitSet posting = postings.get(tag);
+            postings.put(tag, posting != null ? (BitSet) posting.clone() : new BitSet());
+        }
+        return postings.get(tag);
+    }
+
+    private static String[] byFrequency(Map<String, BitSet> postings) {
+        String[] byFrequency = postings.keySet().toArray(new String[0]);
+        Arrays.sort(byFrequency, Comparator.<String>comparingInt(tag -> -postings.get(tag).cardinality())
+                .thenComparing(Comparator.naturalOrder()));
+        return byFrequency;
+    }
+
+    public static String normalize(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses an expression such as {@code "defi and ethereum-ecosystem or layer-1"} into normalized
+     * OR groups of AND terms. {@code and}, {@code &} and commas bind tighter than {@code or} and {@code |}.
+     *
+     * @throws IllegalArgumentException when the expression or one of its terms is empty
+     */
+    public static List<List<String>> parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("no tags given");
+        }
+        List<List<String>> anyOf = new ArrayList<>();
+        for (String group : OR.split(expression.trim(), -1)) {
+            List<String> allOf = new ArrayList<>();
+            for (String term : AND.split(group, -1)) {
+                if (term.isBlank()) {
+                    throw new IllegalArgumentException("empty tag in '" + expression.trim() + "'");
+                }
+                String tag = normalize(term);
+                if (!allOf.contains(tag)) {
+                    allOf.add(tag);
+                }
+            }
+            anyOf.add(allOf);
+        }
+        return anyOf;
+    }
+
+    /**
+     * Renders parsed groups as e.g. {@code defi AND ethereum-ecosystem OR layer-1}.
+     */
+    public static String describe(List<List<String>> anyOf) {
+        return anyOf.stream().map(allOf -> String.join(" AND ", allOf)).collect(Collectors.joining(" OR "));
+    }
+
+    /**
+     * Returns the ordinals matching any of the groups, where a group matches the coins carrying all of
+     * its tags. The result is a new set the caller may modify.
+     */
+    public BitSet match(List<List<String>> anyOf) {
+        BitSet result = new BitSet();
+        for (List<String> allOf : anyOf) {
+            result.or(matchAll(allOf));
+        }
+        return result;
+    }
+
+    private BitSet matchAll(List<String> allOf) {
+        // Start from the rarest tag so every intersection works on the smallest set.
+        BitSet[] sets = new BitSet[allOf.size()];
+        for (int i = 0; i < sets.length; i++) {
+            sets[i] = postings.get(allOf.get(i));
+            if (sets[i] == null) {
+                return new BitSet();
+            }
+        }
+        Arrays.sort(sets, Comparator.comparingInt(BitSet::cardinality));
+
+        BitSet matches = (BitSet) sets[0].clone();
+        for (int i = 1; i < sets.length && !matches.isEmpty(); i++) {
+            matches.and(sets[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * Number of coins carrying {@code tag}.
+     */
+    public int count(String tag) {
+        BitSet posting = tag != null ? postings.get(normalize(tag)) : null;
+        return posting != null ? posting.cardinality() : 0;
+    }
+
+    /**
+     * Number of distinct tags.
+     */
+    public int size() {
+        return byFrequency.length;
+    }
+
+    /**
+     * Returns up to {@code limit} tags, most widely used first and ties by name.
+     */
+    public List<String> mostCommon(int limit) {
+        return List.of(Arrays.copyOf(byFrequency, Math.min(Math.max(limit, 0), byFrequency.length)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.cuius.mcpserver.config;
+
+import com.cuius.mcpserver.metrics.TimedToolCallback;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.support.ToolDefinitions;
+import org.springframework.util.ReflectionUtils;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes {@link Tool @Tool} methods returning {@code Mono<String>} as MCP async tool specifications,
+ * so the server subscribes to the tool's result instead of parking a thread on it. Input schemas
+ * come from the same generator as the sync tools, and results are JSON-encoded the same way, so
+ * clients see identical tools in either mode.
+ */
+public final class AsyncToolSpecifications {
+
+    private AsyncToolSpecifications() {
+    }
+
+    public static List<AsyncToolSpecification> from(Object toolObject, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        List<AsyncToolSpecification> specifications = new ArrayList<>();
+        for (Method method : toolObject.getClass().getMethods()) {
+            if (!method.isAnnotationPresent(Tool.class)) {
+                continue;
+            }
+            if (!Mono.class.isAssignableFrom(method.getReturnType())) {
+                throw new IllegalStateException("Async tool method must return Mono: " + method);
+            }
+            ToolDefinition definition = ToolDefinitions.from(method);
+            McpSchema.Tool tool = new McpSchema.Tool(definition.name(), definition.description(), definition.inputSchema());
+            Timer success = TimedToolCallback.timer(meterRegistry, definition.name(), "success");
+            Timer error = TimedToolCallback.timer(meterRegistry, definition.name(), "error");
+
+            specifications.add(new AsyncToolSpecification(tool, (exchange, arguments) -> Mono.defer(() -> {
+                long start = System.nanoTime();
+                return Mono.defer(() -> invoke(toolObject, method, arguments, objectMapper))
+                        .map(result -> textResult(result, objectMapper, false))
+                        .doOnSuccess(result -> success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                        .onErrorResume(e -> {
+                            error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            return Mono.just(textResult(e.getMessage(), objectMapper, true));
+                        });
+            })));
+        }
+        return specifications;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Mono<String> invoke(Object toolObject, Method method, Map<String, Object> arguments, ObjectMapper objectMapper) {
+        Parameter[] parameters = method.getParameters();
+        Object[] values = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Object argument = arguments != null ? arguments.get(parameters[i].getName()) : null;
+            values[i] = argument != null ? objectMapper.convertValue(argument, parameters[i].getType()) : null;
+        }
+        try {
+            ReflectionUtils.makeAccessible(method);
+            return (Mono<String>) method.invoke(toolObject, values);
+        } catch (InvocationTargetException e) {
+            return Mono.error(e.getCause());
+        } catch (IllegalAccessException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private static McpSchema.CallToolResult textResult(String text, ObjectMapper objectMapper, boolean isError) {
+        try {
+            return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(objectMapper.writeValueAsString(text))), isError);
+        } catch (JsonProcessingException e) {
+            return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(text)), isError);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.cuius.mcpserver.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * HTTP client profile for the CoinMarketCap API: a dedicated, bounded connection pool that keeps
+ * connections warm between refreshes, connect/response timeouts, gzip, optional HTTP/2 over TLS
+ * and a buffer limit large enough for multi-thousand-entry listings. The profile is applied to a
+ * clone of the shared {@code WebClient.Builder}, so other clients in the application keep their defaults.
+ */
+@Configuration
+public class CoinMarketCapHttpClientConfig {
+    private static final Logger logger = Logger.getLogger(CoinMarketCapHttpClientConfig.class.getName());
+
+    @Value("${coinmarketcap.api.base-url}")
+    private String baseUrl;
+    @Value("${coinmarketcap.http.max-connections:16}")
+    private int maxConnections = 16;
+    @Value("${coinmarketcap.http.pending-acquire-timeout:10s}")
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+    @Value("${coinmarketcap.http.max-idle-time:55s}")
+    private Duration maxIdleTime = Duration.ofSeconds(55);
+    @Value("${coinmarketcap.http.max-life-time:10m}")
+    private Duration maxLifeTime = Duration.ofMinutes(10);
+    @Value("${coinmarketcap.http.connect-timeout:5s}")
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    @Value("${coinmarketcap.http.response-timeout:30s}")
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    @Value("${coinmarketcap.http.compression:true}")
+    private boolean compression = true;
+    @Value("${coinmarketcap.http.http2:true}")
+    private boolean http2 = true;
+    @Value("${coinmarketcap.http.max-in-memory-size:16MB}")
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider coinMarketCapConnectionProvider() {
+        return ConnectionProvider.builder("coinmarketcap")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // Close idle connections before the server or a proxy does, so a pooled connection
+                // is never reused after it has been silently dropped.
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .build();
+    }
+
+    @Bean
+    public WebClient coinMarketCapWebClient(WebClient.Builder webClientBuilder, ConnectionProvider coinMarketCapConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(coinMarketCapConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .compress(compression);
+
+        // HTTP/2 is negotiated through ALPN, so it only applies to TLS endpoints; HTTP/1.1 stays the fallback.
+        if (http2 && baseUrl.startsWith("https:")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+
+        logger.info("CoinMarketCap HTTP client: " + maxConnections + " pooled connections, response timeout " +
+                responseTimeout + ", compression " + compression + ", HTTP/2 " + (http2 && baseUrl.startsWith("https:")));
+
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+        int maxInMemoryBytes = Math.toIntExact(maxInMemorySize.toBytes());
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(connector)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemoryBytes))
+                .build();
+    }
+}
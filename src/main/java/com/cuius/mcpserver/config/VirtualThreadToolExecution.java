@@ -0,0 +1,41 @@
+package com.cuius.mcpserver.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.util.logging.Logger;
+
+/**
+ * Runs sync tool callbacks on virtual threads. The sync MCP server executes every tool call on
+ * Reactor's default bounded-elastic scheduler, so switching that scheduler to virtual threads lets
+ * each call (including its blocking upstream request) park cheaply instead of holding a platform
+ * thread. {@code reactor.schedulers.defaultBoundedElasticSize} then caps how many calls run at once;
+ * further calls queue.
+ *
+ * <p>Reactor reads these settings once, when its {@code Schedulers} class is initialized, which is
+ * why they are applied while the environment is prepared rather than from a bean.
+ */
+public class VirtualThreadToolExecution implements EnvironmentPostProcessor {
+    private static final Logger logger = Logger.getLogger(VirtualThreadToolExecution.class.getName());
+
+    static final String VIRTUAL_THREADS_PROPERTY = "reactor.schedulers.defaultBoundedElasticOnVirtualThreads";
+    static final String MAX_CONCURRENCY_PROPERTY = "reactor.schedulers.defaultBoundedElasticSize";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("coinmarketcap.tools.virtual-threads.enabled", Boolean.class, false)) {
+            return;
+        }
+
+        int maxConcurrency = environment.getProperty("coinmarketcap.tools.virtual-threads.max-concurrency", Integer.class, 256);
+        // Explicit -D settings win over application properties.
+        if (System.getProperty(VIRTUAL_THREADS_PROPERTY) == null) {
+            System.setProperty(VIRTUAL_THREADS_PROPERTY, "true");
+        }
+        if (System.getProperty(MAX_CONCURRENCY_PROPERTY) == null) {
+            System.setProperty(MAX_CONCURRENCY_PROPERTY, String.valueOf(maxConcurrency));
+        }
+        logger.info("Tool callbacks run on virtual threads, at most " + System.getProperty(MAX_CONCURRENCY_PROPERTY) + " at once");
+    }
+}
@@ -0,0 +1,112 @@
+package com.cuius.mcpserver.metrics;
+
+import com.cuius.mcpserver.dto.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Upstream usage reported by CoinMarketCap in each response {@link Status}, fetches coalesced into
+ * an in-flight request, cache hit/miss counts for the lookup tools, and hit/miss counts for the
+ * rendered-response cache. HTTP latency and error rate for the upstream calls are recorded by the
+ * auto-configured {@code http.client.requests} observation on the shared {@code WebClient.Builder}.
+ */
+@Component
+public class CoinMarketCapMetrics {
+    private static final CoinMarketCapMetrics NOOP = new CoinMarketCapMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+    private final Counter creditsConsumed;
+    private final Timer apiElapsed;
+    private final Counter symbolHits;
+    private final Counter symbolMisses;
+    private final Counter nameHits;
+    private final Counter nameMisses;
+    // Hit and miss counters per tool, registered on the tool's first response-cache request.
+    private final Map<String, Counter[]> responseCache = new ConcurrentHashMap<>();
+
+    public CoinMarketCapMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.creditsConsumed = Counter.builder("coinmarketcap.api.credits")
+                .description("API credits charged by CoinMarketCap")
+                .register(registry);
+        this.apiElapsed = Timer.builder("coinmarketcap.api.elapsed")
+                .description("Server-side processing time reported in the response status")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.symbolHits = lookupCounter("getCryptoBySymbol", "hit");
+        this.symbolMisses = lookupCounter("getCryptoBySymbol", "miss");
+        this.nameHits = lookupCounter("searchCryptoByName", "hit");
+        this.nameMisses = lookupCounter("searchCryptoByName", "miss");
+    }
+
+    /**
+     * Metrics that are recorded nowhere, for services constructed outside the application context.
+     */
+    public static CoinMarketCapMetrics noop() {
+        return NOOP;
+    }
+
+    public void recordStatus(Status status) {
+        if (status == null) {
+            return;
+        }
+        if (status.getCreditCount() != null) {
+            creditsConsumed.increment(status.getCreditCount());
+        }
+        if (status.getElapsed() != null) {
+            apiElapsed.record(status.getElapsed(), TimeUnit.MILLISECONDS);
+        }
+        if (status.getErrorCode() != null && status.getErrorCode() != 0) {
+            registry.counter("coinmarketcap.api.errors", "code", String.valueOf(status.getErrorCode())).increment();
+        }
+    }
+
+    /**
+     * Exposes the count of fetches that joined an in-flight upstream request, read from {@code source}.
+     */
+    public <T> void bindCoalescedFetches(T source, ToDoubleFunction<T> coalescedFetches) {
+        FunctionCounter.builder("coinmarketcap.fetch.coalesced", source, coalescedFetches)
+                .description("Listings fetches served by joining an upstream request already in flight")
+                .register(registry);
+    }
+
+    public void recordSymbolLookup(boolean hit) {
+        (hit ? symbolHits : symbolMisses).increment();
+    }
+
+    public void recordNameSearch(boolean hit) {
+        (hit ? nameHits : nameMisses).increment();
+    }
+
+    public void recordResponseCache(String tool, boolean hit) {
+        Counter[] counters = responseCache.computeIfAbsent(tool, key -> new Counter[] {
+                responseCacheCounter(key, "miss"), responseCacheCounter(key, "hit")});
+        counters[hit ? 1 : 0].increment();
+    }
+
+    private Counter responseCacheCounter(String tool, String result) {
+        return Counter.builder("mcp.response.cache")
+                .description("Rendered-response cache requests by tool and result")
+                .tag("tool", tool)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter lookupCounter(String tool, String result) {
+        return Counter.builder("mcp.cache.lookups")
+                .description("Cache lookups by tool and result")
+                .tag("tool", tool)
+                .tag("result", result)
+                .register(registry);
+    }
+}
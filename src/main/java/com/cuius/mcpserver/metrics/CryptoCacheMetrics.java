@@ -0,0 +1,45 @@
+package com.cuius.mcpserver.metrics;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gauges over the currently published snapshot. They read {@link CryptoSnapshotStore#current()} on
+ * each scrape, so they never hold on to a replaced snapshot.
+ */
+@Component
+public class CryptoCacheMetrics implements MeterBinder {
+    private final CryptoSnapshotStore snapshotStore;
+
+    public CryptoCacheMetrics(CryptoSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("coinmarketcap.cache.size", snapshotStore, store -> store.current().size())
+                .description("Cryptocurrencies in the current snapshot")
+                .register(registry);
+        Gauge.builder("coinmarketcap.cache.version", snapshotStore, store -> store.current().getVersion())
+                .description("Version of the current snapshot")
+                .register(registry);
+        TimeGauge.builder("coinmarketcap.cache.age", snapshotStore, TimeUnit.MILLISECONDS, CryptoCacheMetrics::ageMillis)
+                .description("Age of the current snapshot; NaN while the cache is empty")
+                .register(registry);
+        Gauge.builder("coinmarketcap.cache.refreshing", snapshotStore, store -> store.isRefreshing() ? 1 : 0)
+                .description("1 while a background refresh is in flight")
+                .register(registry);
+    }
+
+    private static double ageMillis(CryptoSnapshotStore store) {
+        CryptoSnapshot current = store.current();
+        return current.isEmpty() ? Double.NaN : current.getAge().toMillis();
+    }
+}
@@ -0,0 +1,80 @@
+package com.cuius.mcpserver.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every call to a tool as {@code mcp.tool.calls}, tagged with the tool name
+ * and whether the call completed or threw.
+ */
+public class TimedToolCallback implements ToolCallback {
+    private final ToolCallback delegate;
+    private final Timer success;
+    private final Timer error;
+
+    TimedToolCallback(ToolCallback delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.success = timer(registry, delegate.getToolDefinition().name(), "success");
+        this.error = timer(registry, delegate.getToolDefinition().name(), "error");
+    }
+
+    public static ToolCallbackProvider wrap(ToolCallbackProvider provider, MeterRegistry registry) {
+        return ToolCallbackProvider.from(Arrays.stream(provider.getToolCallbacks())
+                .map(callback -> new TimedToolCallback(callback, registry))
+                .toList());
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        long start = System.nanoTime();
+        try {
+            String result = delegate.call(toolInput);
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        long start = System.nanoTime();
+        try {
+            String result = delegate.call(toolInput, toolContext);
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    public static Timer timer(MeterRegistry registry, String tool, String outcome) {
+        return Timer.builder("mcp.tool.calls")
+                .description("Latency of MCP tool calls")
+                .tag("tool", tool)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
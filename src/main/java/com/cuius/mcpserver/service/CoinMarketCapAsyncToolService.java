@@ -0,0 +1,137 @@
+package com.cuius.mcpserver.service;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Reactive variants of the {@link CoinMarketCapToolService} tools, registered when
+ * {@code spring.ai.mcp.server.type=async}. The upstream fetch runs on the HTTP client's event loop
+ * without blocking, and the snapshot build and publish move off it to a bounded elastic worker;
+ * cache reads are in-memory lookups and are answered inline.
+ */
+@Service
+public class CoinMarketCapAsyncToolService {
+    private static final Logger logger = Logger.getLogger(CoinMarketCapAsyncToolService.class.getName());
+
+    private final CoinMarketCapWebService webService;
+    private final CoinMarketCapToolService cacheTools;
+
+    public CoinMarketCapAsyncToolService(CoinMarketCapWebService webService, CoinMarketCapToolService cacheTools) {
+        this.webService = webService;
+        this.cacheTools = cacheTools;
+    }
+
+    @Tool(name = "getLatestCryptoListings", description = "Fetches the latest cryptocurrency listings from CoinMarketCap API and stores them in memory")
+    public Mono<String> getLatestCryptoListings(@ToolParam(required = false, description = "max  number of listings") Integer limit) {
+        int effectiveLimit = limit == null || limit <= 0 ? cacheTools.defaultLimit() : limit;
+        logger.info("Fetching latest cryptocurrency listings with limit: " + effectiveLimit);
+
+        // Reserve on subscription, not at assembly, so a Mono that is never subscribed holds no credits.
+        return Mono.defer(() -> {
+            CreditBudget.Reservation reservation = cacheTools.reserveListings(effectiveLimit);
+            if (reservation.getListings() == 0) {
+                return Mono.fromSupplier(cacheTools::budgetExhausted);
+            }
+
+            AtomicBoolean settled = new AtomicBoolean();
+            return webService.fetchListings(reservation.getListings())
+                    .doOnNext(response -> {
+                        if (settled.compareAndSet(false, true)) {
+                            cacheTools.settleCredits(reservation, response);
+                        }
+                    })
+                    // A fetch that failed, came back empty or was abandoned before its response was not charged;
+                    // the web service reports upstream errors as an empty completion.
+                    .doOnSuccess(response -> {
+                        if (response == null) {
+                            release(settled, reservation);
+                        }
+                    })
+                    .doOnError(e -> release(settled, reservation))
+                    .doOnCancel(() -> release(settled, reservation))
+                    // Building the snapshot and its indexes and running the publish listeners must not stall the event loop.
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(cacheTools::publishListings)
+                    .switchIfEmpty(Mono.fromSupplier(() -> cacheTools.publishListings(null)));
+        }).onErrorResume(e -> {
+            logger.severe("Exception in getLatestCryptoListings: " + e.getMessage());
+            return Mono.just("Error: " + e.getMessage());
+        });
+    }
+
+    private void release(AtomicBoolean settled, CreditBudget.Reservation reservation) {
+        if (settled.compareAndSet(false, true)) {
+            cacheTools.releaseListings(reservation);
+        }
+    }
+
+    @Tool(name = "getCachedCryptoCount", description = "Returns the number of cryptocurrencies currently cached in memory")
+    public Mono<String> getCachedCryptoCount() {
+        return Mono.fromSupplier(cacheTools::getCachedCryptoCount);
+    }
+
+    @Tool(name = "getCacheStatus", description = "Returns the size, version and age of the cached snapshot and whether a background refresh is in progress")
+    public Mono<String> getCacheStatus() {
+        return Mono.fromSupplier(cacheTools::getCacheStatus);
+    }
+
+    @Tool(name = "getCryptoBySymbol", description = "Retrieves cryptocurrencies from the cache by their symbol (e.g., BTC, ETH); returns every coin sharing the symbol")
+    public Mono<String> getCryptoBySymbol(@ToolParam(required = true, description = "the symbol to use for searching crypto") String symbol,
+                                          @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        return Mono.fromSupplier(() -> cacheTools.getCryptoBySymbol(symbol, currency));
+    }
+
+    @Tool(name = "getTopCryptos", description = "Returns the top N cryptocurrencies by market cap rank from the cache")
+    public Mono<String> getTopCryptos(@ToolParam(required = false, description = "number of listings to return") Integer count,
+                                      @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        return Mono.fromSupplier(() -> cacheTools.getTopCryptos(count, currency));
+    }
+
+    @Tool(name = "searchCryptoByName", description = "Searches for cryptocurrencies in the cache by name (case-insensitive partial match), ordered by market cap rank")
+    public Mono<String> searchCryptoByName(@ToolParam(description = "name of crypto to search match") String name,
+                                           @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        return Mono.fromSupplier(() -> cacheTools.searchCryptoByName(name, currency));
+    }
+
+    @Tool(name = "queryCryptos", description = "Filters the cached cryptocurrencies on quote fields (price, market_cap, volume_24h, percent_change_1h/24h/7d/30d) and sorts them, e.g. coins over $1B market cap sorted by 7d change")
+    public Mono<String> queryCryptos(@ToolParam(required = false, description = "comma-separated conditions such as 'market_cap>=1e9, percent_change_7d>0'; operators >, >=, <, <=, =") String filter,
+                                     @ToolParam(required = false, description = "field to sort by (e.g., market_cap, percent_change_7d); defaults to market cap rank") String sortBy,
+                                     @ToolParam(required = false, description = "asc or desc (default: desc)") String order,
+                                     @ToolParam(required = false, description = "max number of results to return") Integer limit,
+                                     @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        return Mono.fromSupplier(() -> cacheTools.queryCryptos(filter, sortBy, order, limit, currency));
+    }
+
+    @Tool(name = "getTopMovers", description = "Returns the biggest gainers and losers in the cache by 1h, 24h, 7d or 30d percent change")
+    public Mono<String> getTopMovers(@ToolParam(required = false, description = "change period: 1h, 24h, 7d or 30d (default: 24h)") String period,
+                                     @ToolParam(required = false, description = "number of gainers and of losers to return") Integer count,
+                                     @ToolParam(required = false, description = "conditions restricting the coins considered, e.g. 'market_cap>=1e8' (same syntax as queryCryptos)") String filter,
+                                     @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        return Mono.fromSupplier(() -> cacheTools.getTopMovers(period, count, filter, currency));
+    }
+
+    @Tool(name = "getMarketOverview", description = "Returns market-wide totals from the cache: total market cap and 24h volume, dominance of the largest (or given) coins, top 10/100/500/1000 sums and the mean and median 1h, 24h, 7d and 30d change")
+    public Mono<String> getMarketOverview(@ToolParam(required = false, description = "comma-separated symbols to report dominance for (default: the 5 largest coins)") String symbols,
+                                          @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        return Mono.fromSupplier(() -> cacheTools.getMarketOverview(symbols, currency));
+    }
+
+    @Tool(name = "getCryptosByTag", description = "Lists the cached cryptocurrencies carrying a combination of tags, e.g. 'defi and ethereum-ecosystem' or 'meme or gaming', with their combined market cap and 24h volume; without tags lists the most common tags")
+    public Mono<String> getCryptosByTag(@ToolParam(required = false, description = "tag expression: tags joined by 'and' (or ',') bind tighter than 'or'; omit to list the most common tags") String tags,
+                                        @ToolParam(required = false, description = "max number of coins (or tags) to return") Integer limit,
+                                        @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        return Mono.fromSupplier(() -> cacheTools.getCryptosByTag(tags, limit, currency));
+    }
+
+    @Tool(name = "getPriceHistory", description = "Returns the recent price, market cap and 24h volume samples recorded on each refresh for the top-ranked cryptocurrency with the given symbol, oldest first")
+    public Mono<String> getPriceHistory(@ToolParam(required = true, description = "the symbol of the crypto (e.g., BTC, ETH)") String symbol,
+                                        @ToolParam(required = false, description = "max number of most recent samples to return") Integer count) {
+        return Mono.fromSupplier(() -> cacheTools.getPriceHistory(symbol, count));
+    }
+}
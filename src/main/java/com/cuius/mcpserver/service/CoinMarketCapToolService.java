@@ -1,30 +1,64 @@
 package com.cuius.mcpserver.service;
 
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.MarketAggregates;
+import com.cuius.mcpserver.cache.NameSearchIndex;
+import com.cuius.mcpserver.cache.QuoteHistory;
+import com.cuius.mcpserver.cache.QuoteColumns;
+import com.cuius.mcpserver.cache.QuoteQuery;
+import com.cuius.mcpserver.cache.TagIndex;
 import com.cuius.mcpserver.dto.CoinMarketCapResponse;
-import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Currency;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 @Service
 public class CoinMarketCapToolService {
     private static final Logger logger = Logger.getLogger(CoinMarketCapToolService.class.getName());
 
-    private final List<CryptoCurrency> cachedCryptocurrencies;
-    private final CoinMarketCapWebService webService;
+    // Typical rendered size of one coin; responses are presized from these and written in place.
+    private static final int INFO_CHARS = 256;
+    private static final int SUMMARY_CHARS = 64;
 
-    @Value("${coinmarketcap.api.listings.default-limit}")
-    private Integer LISTINGS_DEFAULT_LIMIT;
+    // Fiat amounts render with two decimals like USD; crypto convert currencies (BTC, ETH) need more.
+    private static final Set<String> FIAT_CURRENCIES = Currency.getAvailableCurrencies().stream()
+            .map(Currency::getCurrencyCode)
+            .collect(Collectors.toUnmodifiableSet());
+    private static final int CRYPTO_DECIMALS = 8;
+    private static final int DOMINANCE_COINS = 5;
 
-    public CoinMarketCapToolService(CoinMarketCapWebService webService) {
-        this.cachedCryptocurrencies = new ArrayList<>();
+    private final CoinMarketCapWebService webService;
+    private final CryptoSnapshotStore snapshotStore;
+    private final CoinMarketCapMetrics metrics;
+    private final CreditBudget creditBudget;
+    private final QuoteHistory quoteHistory;
+    private final ResponseCache responseCache;
+
+    @Value("${coinmarketcap.api.listings.default-limit:10}")
+    private int LISTINGS_DEFAULT_LIMIT = 10;
+
+    public CoinMarketCapToolService(CoinMarketCapWebService webService, CryptoSnapshotStore snapshotStore,
+                                    CoinMarketCapMetrics metrics, CreditBudget creditBudget, QuoteHistory quoteHistory,
+                                    ResponseCache responseCache) {
         this.webService = webService;
+        this.snapshotStore = snapshotStore;
+        this.metrics = metrics;
+        this.creditBudget = creditBudget;
+        this.quoteHistory = quoteHistory;
+        this.responseCache = responseCache;
     }
 
     @Tool(name = "getLatestCryptoListings", description = "Fetches the latest cryptocurrency listings from CoinMarketCap API and stores them in memory")
@@ -35,132 +69,605 @@ public class CoinMarketCapToolService {
             if (limit == null || limit <= 0) {
                 limit = LISTINGS_DEFAULT_LIMIT;
             }
-            CoinMarketCapResponse response = webService.getCoinMarketCapWebResponse(limit);
-
-            if (response != null && response.getData() != null) {
-                cachedCryptocurrencies.clear();
-                cachedCryptocurrencies.addAll(response.getData());
-
-                logger.info("Successfully fetched and cached " + cachedCryptocurrencies.size() + " cryptocurrencies");
-
-                return "Successfully fetched " + cachedCryptocurrencies.size() + " cryptocurrencies. " +
-                       "Total in cache: " + getCachedCount();
-            } else {
-                return "Failed to fetch cryptocurrency data. Please check your configuration.";
+            CreditBudget.Reservation reservation = reserveListings(limit);
+            if (reservation.getListings() == 0) {
+                return budgetExhausted();
             }
+            CoinMarketCapResponse response = webService.getCoinMarketCapWebResponse(reservation.getListings());
+            settleCredits(reservation, response);
+            return publishListings(response);
         } catch (Exception e) {
             logger.severe("Exception in getLatestCryptoListings: " + e.getMessage());
             return "Error: " + e.getMessage();
         }
     }
 
+    int defaultLimit() {
+        return LISTINGS_DEFAULT_LIMIT;
+    }
+
+    CreditBudget.Reservation reserveListings(int limit) {
+        CreditBudget.Reservation reservation = creditBudget.reserve(limit, convertBatches());
+        int affordable = reservation.getListings();
+        if (affordable > 0 && affordable < limit) {
+            logger.warning("Credit budget only allows " + affordable + " of " + limit + " requested listings");
+        }
+        return reservation;
+    }
+
+    // A caller that joined another caller's in-flight fetch gets a credit_count of 0 and releases its reservation;
+    // a failed fetch (no response) was not charged and releases it too.
+    void settleCredits(CreditBudget.Reservation reservation, CoinMarketCapResponse response) {
+        if (response == null) {
+            releaseListings(reservation);
+            return;
+        }
+        creditBudget.settle(reservation, response.getStatus() != null ? response.getStatus().getCreditCount() : null);
+    }
+
+    // Hands back the whole reservation of a fetch that was not charged.
+    void releaseListings(CreditBudget.Reservation reservation) {
+        creditBudget.settle(reservation, 0);
+    }
+
+    // Each convert batch requests the listings again and is charged for them.
+    private int convertBatches() {
+        return webService.convertBatches().size();
+    }
+
+    // Served instead of a fetch: say how stale the cache is so the caller can decide whether it is good enough.
+    String budgetExhausted() {
+        CryptoSnapshot current = snapshotStore.current();
+        logger.warning("Credit budget exhausted; serving cached snapshot v" + current.getVersion());
+        return "Credit budget exhausted (" + creditBudget.usedToday() + " credits used today); " +
+               "next fetch possible in " + creditBudget.untilAvailable().toSeconds() + "s. " +
+               (current.isEmpty()
+                       ? "Cache is empty."
+                       : "Serving cached snapshot v" + current.getVersion() + " with " + current.size() +
+                         " cryptocurrencies, age " + current.getAge().toSeconds() + "s.");
+    }
+
+    String publishListings(CoinMarketCapResponse response) {
+        if (response != null && response.getData() != null) {
+            CryptoSnapshot refreshed = snapshotStore.publish(response.getData());
+
+            logger.info("Successfully fetched and cached " + refreshed.size() + " cryptocurrencies (snapshot v" + refreshed.getVersion() + ")");
+
+            return "Successfully fetched " + refreshed.size() + " cryptocurrencies. " +
+                   "Total in cache: " + getCachedCount();
+        } else {
+            return "Failed to fetch cryptocurrency data. Please check your configuration.";
+        }
+    }
+
     @Tool(name = "getCachedCryptoCount", description = "Returns the number of cryptocurrencies currently cached in memory")
     public String getCachedCryptoCount() {
-        int count = cachedCryptocurrencies.size();
+        int count = getCachedCount();
         logger.info("Current cached cryptocurrency count: " + count);
         return "Currently caching " + count + " cryptocurrencies";
     }
 
-    @Tool(name = "getCryptoBySymbol", description = "Retrieves a specific cryptocurrency from the cache by its symbol (e.g., BTC, ETH)")
-    public String getCryptoBySymbol(@ToolParam(required = true, description = "the symbol to use for searching crypto") String symbol) {
+    @Tool(name = "getCacheStatus", description = "Returns the size, version and age of the cached snapshot and whether a background refresh is in progress")
+    public String getCacheStatus() {
+        CryptoSnapshot current = snapshotStore.current();
+        if (current.isEmpty()) {
+            return "Cache is empty" + (snapshotStore.isRefreshing() ? " (refresh in progress)" : "");
+        }
+
+        Duration age = current.getAge();
+        return "Cache snapshot v" + current.getVersion() + ": " + current.size() + " cryptocurrencies, " +
+               "age " + age.toSeconds() + "s" +
+               (snapshotStore.isRefreshing() ? " (refresh in progress)" : "") +
+               (creditBudget.getCreditsPerDay() > 0 ? ", credits used today " + creditBudget.usedToday() + "/" + creditBudget.getCreditsPerDay() : "");
+    }
+
+    @Tool(name = "getCryptoBySymbol", description = "Retrieves cryptocurrencies from the cache by their symbol (e.g., BTC, ETH); returns every coin sharing the symbol")
+    public String getCryptoBySymbol(@ToolParam(required = true, description = "the symbol to use for searching crypto") String symbol,
+                                    @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
         logger.info("Searching for cryptocurrency with symbol: " + symbol);
 
         if (symbol == null || symbol.trim().isEmpty()) {
             return "Please provide a valid cryptocurrency symbol";
         }
 
-        return cachedCryptocurrencies.stream()
-                .filter(crypto -> crypto.getSymbol().equalsIgnoreCase(symbol.trim()))
-                .findFirst()
-                .map(this::formatCryptoInfo)
-                .orElse("Cryptocurrency with symbol '" + symbol + "' not found in cache");
+        CryptoSnapshot current = snapshotStore.current();
+        String quoteCurrency = quoteCurrency(current, currency);
+        if (quoteCurrency == null) {
+            return unknownCurrency(current, currency);
+        }
+        int[] matches = current.findBySymbol(symbol);
+        metrics.recordSymbolLookup(matches.length > 0);
+
+        if (matches.length == 0) {
+            return "Cryptocurrency with symbol '" + symbol + "' not found in cache";
+        }
+        // The lookup itself is a hash probe; only the rendered coins are cached, under the normalized symbol.
+        String args = symbol.trim().toLowerCase(Locale.ROOT) + " " + quoteCurrency;
+        if (matches.length == 1) {
+            return responseCache.get("getCryptoBySymbol", args, current.getVersion(),
+                    () -> appendCryptoInfo(new StringBuilder(INFO_CHARS), current, matches[0], quoteCurrency).toString());
+        }
+
+        String coins = responseCache.get("getCryptoBySymbol", args, current.getVersion(), () -> {
+            StringBuilder sb = new StringBuilder(matches.length * (INFO_CHARS + 1));
+            for (int ordinal : matches) {
+                appendCryptoInfo(sb, current, ordinal, quoteCurrency).append("\n");
+            }
+            return sb.toString();
+        });
+        return "Found " + matches.length + " cryptocurrencies with symbol '" + symbol.trim() + "':\n" + coins;
     }
 
     @Tool(name = "getTopCryptos", description = "Returns the top N cryptocurrencies by market cap rank from the cache")
-    public String getTopCryptos(@ToolParam(required = false, description = "number of listings to return")Integer count) {
+    public String getTopCryptos(@ToolParam(required = false, description = "number of listings to return")Integer count,
+                                @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
         if (count == null || count <= 0) {
             count = LISTINGS_DEFAULT_LIMIT;
         }
 
         logger.info("Getting top " + count + " cryptocurrencies");
 
-        if (cachedCryptocurrencies.isEmpty()) {
+        CryptoSnapshot current = snapshotStore.current();
+        if (current.isEmpty()) {
             return "No cryptocurrencies in cache. Please fetch data first using getLatestCryptoListings.";
         }
 
-        List<CryptoCurrency> topCryptos = cachedCryptocurrencies.stream()
-                .sorted(Comparator.comparingInt(c -> c.getCmcRank() != null ? c.getCmcRank() : Integer.MAX_VALUE))
-                .limit(count)
-                .toList();
-
-        StringBuilder result = new StringBuilder("Top " + topCryptos.size() + " Cryptocurrencies:\n");
-        for (CryptoCurrency crypto : topCryptos) {
-            result.append(formatCryptoSummary(crypto)).append("\n");
+        String quoteCurrency = quoteCurrency(current, currency);
+        if (quoteCurrency == null) {
+            return unknownCurrency(current, currency);
         }
 
-        return result.toString();
+        int topCount = Math.min(count, current.size());
+        return responseCache.get("getTopCryptos", topCount + " " + quoteCurrency, current.getVersion(), () -> {
+            StringBuilder result = new StringBuilder(32 + topCount * (SUMMARY_CHARS + 1));
+            result.append("Top ").append(topCount).append(" Cryptocurrencies:\n");
+            for (int i = 0; i < topCount; i++) {
+                appendCryptoSummary(result, current, i, quoteCurrency).append("\n");
+            }
+            return result.toString();
+        });
     }
 
-    @Tool(name = "searchCryptoByName", description = "Searches for cryptocurrencies in the cache by name (case-insensitive partial match)")
-    public String searchCryptoByName(@ToolParam(description = "name of crypto to search match") String name) {
+    @Tool(name = "searchCryptoByName", description = "Searches for cryptocurrencies in the cache by name (case-insensitive partial match), ordered by market cap rank")
+    public String searchCryptoByName(@ToolParam(description = "name of crypto to search match") String name,
+                                     @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
         logger.info("Searching for cryptocurrencies with name containing: " + name);
 
         if (name == null || name.trim().isEmpty()) {
             return "Please provide a valid cryptocurrency name to search";
         }
 
-        List<CryptoCurrency> matches = cachedCryptocurrencies.stream()
-                .filter(crypto -> crypto.getName().toLowerCase().contains(name.toLowerCase().trim()))
-                .limit(LISTINGS_DEFAULT_LIMIT)
-                .toList();
+        CryptoSnapshot current = snapshotStore.current();
+        String quoteCurrency = quoteCurrency(current, currency);
+        if (quoteCurrency == null) {
+            return unknownCurrency(current, currency);
+        }
+        int[] matches = current.searchByName(name, LISTINGS_DEFAULT_LIMIT);
+        metrics.recordNameSearch(matches.length > 0);
 
-        if (matches.isEmpty()) {
+        if (matches.length == 0) {
             return "No cryptocurrencies found matching '" + name + "'";
         }
 
-        StringBuilder result = new StringBuilder("Found " + matches.size() + " cryptocurrency(ies) matching '" + name + "':\n");
-        for (CryptoCurrency crypto : matches) {
-            result.append(formatCryptoSummary(crypto)).append("\n");
+        String args = NameSearchIndex.normalize(name) + " " + quoteCurrency;
+        String coins = responseCache.get("searchCryptoByName", args, current.getVersion(), () -> {
+            StringBuilder sb = new StringBuilder(matches.length * (SUMMARY_CHARS + 1));
+            for (int ordinal : matches) {
+                appendCryptoSummary(sb, current, ordinal, quoteCurrency).append("\n");
+            }
+            return sb.toString();
+        });
+        return "Found " + matches.length + " cryptocurrency(ies) matching '" + name + "':\n" + coins;
+    }
+
+    @Tool(name = "queryCryptos", description = "Filters the cached cryptocurrencies on quote fields (price, market_cap, volume_24h, percent_change_1h/24h/7d/30d) and sorts them, e.g. coins over $1B market cap sorted by 7d change")
+    public String queryCryptos(@ToolParam(required = false, description = "comma-separated conditions such as 'market_cap>=1e9, percent_change_7d>0'; operators >, >=, <, <=, =") String filter,
+                               @ToolParam(required = false, description = "field to sort by (e.g., market_cap, percent_change_7d); defaults to market cap rank") String sortBy,
+                               @ToolParam(required = false, description = "asc or desc (default: desc)") String order,
+                               @ToolParam(required = false, description = "max number of results to return") Integer limit,
+                               @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        logger.info("Querying cryptocurrencies with filter '" + filter + "' sorted by " + sortBy + " " + order);
+
+        CryptoSnapshot current = snapshotStore.current();
+        if (current.isEmpty()) {
+            return "No cryptocurrencies in cache. Please fetch data first using getLatestCryptoListings.";
+        }
+        String quoteCurrency = quoteCurrency(current, currency);
+        if (quoteCurrency == null) {
+            return unknownCurrency(current, currency);
+        }
+
+        QuoteQuery query;
+        try {
+            query = QuoteQuery.parse(filter);
+        } catch (IllegalArgumentException e) {
+            return "Invalid filter: " + e.getMessage();
+        }
+        if (sortBy != null && !sortBy.isBlank() && !"rank".equalsIgnoreCase(sortBy.trim())) {
+            QuoteColumns.Field sortField = QuoteColumns.Field.fromKey(sortBy);
+            if (sortField == null) {
+                return "Invalid sortBy '" + sortBy + "'; expected rank or one of " + QuoteQuery.fieldKeys();
+            }
+            query.sortBy(sortField, order == null || !"asc".equalsIgnoreCase(order.trim()));
+        }
+        query.limit(limit == null || limit <= 0 ? LISTINGS_DEFAULT_LIMIT : limit);
+
+        return responseCache.get("queryCryptos", query + " " + quoteCurrency, current.getVersion(), () -> {
+            QuoteColumns quotes = current.getQuotes(quoteCurrency);
+            QuoteQuery.Result result = query.run(quotes);
+            if (result.matches() == 0) {
+                return "No cryptocurrencies match " + describe(query);
+            }
+
+            StringBuilder sb = new StringBuilder(64 + result.ordinals().length * (SUMMARY_CHARS * 2 + 1));
+            sb.append("Found ").append(result.matches()).append(" cryptocurrency(ies) matching ").append(describe(query))
+              .append(", showing ").append(result.ordinals().length).append(":\n");
+            for (int ordinal : result.ordinals()) {
+                appendCryptoSummary(sb, current, ordinal, quoteCurrency);
+                // Also show the queried fields the summary line does not carry.
+                for (QuoteColumns.Field field : query.fields()) {
+                    if (field != QuoteColumns.Field.PRICE && field != QuoteColumns.Field.PERCENT_CHANGE_24H) {
+                        appendField(sb.append(" | ").append(field.key()).append(": "), quotes, field, ordinal, quoteCurrency);
+                    }
+                }
+                sb.append("\n");
+            }
+            return sb.toString();
+        });
+    }
+
+    @Tool(name = "getTopMovers", description = "Returns the biggest gainers and losers in the cache by 1h, 24h, 7d or 30d percent change")
+    public String getTopMovers(@ToolParam(required = false, description = "change period: 1h, 24h, 7d or 30d (default: 24h)") String period,
+                               @ToolParam(required = false, description = "number of gainers and of losers to return") Integer count,
+                               @ToolParam(required = false, description = "conditions restricting the coins considered, e.g. 'market_cap>=1e8' (same syntax as queryCryptos)") String filter,
+                               @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        logger.info("Getting top movers by " + period + " change");
+
+        CryptoSnapshot current = snapshotStore.current();
+        if (current.isEmpty()) {
+            return "No cryptocurrencies in cache. Please fetch data first using getLatestCryptoListings.";
+        }
+        String quoteCurrency = quoteCurrency(current, currency);
+        if (quoteCurrency == null) {
+            return unknownCurrency(current, currency);
+        }
+
+        String periodKey = period == null || period.isBlank() ? "24h" : period.trim().toLowerCase(Locale.ROOT).replace("percent_change_", "");
+        QuoteColumns.Field field = QuoteColumns.Field.fromKey("percent_change_" + periodKey);
+        if (field == null) {
+            return "Invalid period '" + period + "'; expected 1h, 24h, 7d or 30d";
+        }
+        int topCount = count == null || count <= 0 ? LISTINGS_DEFAULT_LIMIT : count;
+        // One query per direction; both parse the same filters and only admit coins that moved that way.
+        QuoteQuery filters;
+        QuoteQuery gainers;
+        QuoteQuery losers;
+        try {
+            filters = QuoteQuery.parse(filter);
+            gainers = QuoteQuery.parse(filter).where(field, 0, false, Double.POSITIVE_INFINITY, true)
+                    .sortBy(field, true).limit(topCount);
+            losers = QuoteQuery.parse(filter).where(field, Double.NEGATIVE_INFINITY, true, 0, false)
+                    .sortBy(field, false).limit(topCount);
+        } catch (IllegalArgumentException e) {
+            return "Invalid filter: " + e.getMessage();
+        }
+
+        return responseCache.get("getTopMovers", gainers + " " + losers + " " + quoteCurrency, current.getVersion(), () -> {
+            QuoteColumns quotes = current.getQuotes(quoteCurrency);
+            QuoteQuery.Result top = gainers.run(quotes);
+            QuoteQuery.Result bottom = losers.run(quotes);
+            if (top.matches() == 0 && bottom.matches() == 0) {
+                return "No cryptocurrencies with a nonzero " + periodKey + " change" +
+                       (filters.hasFilters() ? " match " + filters.describeFilters() : " in cache");
+            }
+
+            String scope = filters.hasFilters() ? " (" + filters.describeFilters() + ")" : "";
+            StringBuilder sb = new StringBuilder(64 + (top.ordinals().length + bottom.ordinals().length) * (SUMMARY_CHARS + 1));
+            appendMovers(sb, "gainers", top, current, quotes, field, periodKey, scope, quoteCurrency);
+            appendMovers(sb, "losers", bottom, current, quotes, field, periodKey, scope, quoteCurrency);
+            return sb.toString();
+        });
+    }
+
+    @Tool(name = "getMarketOverview", description = "Returns market-wide totals from the cache: total market cap and 24h volume, dominance of the largest (or given) coins, top 10/100/500/1000 sums and the mean and median 1h, 24h, 7d and 30d change")
+    public String getMarketOverview(@ToolParam(required = false, description = "comma-separated symbols to report dominance for (default: the 5 largest coins)") String symbols,
+                                    @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        logger.info("Getting market overview");
+
+        CryptoSnapshot current = snapshotStore.current();
+        if (current.isEmpty()) {
+            return "No cryptocurrencies in cache. Please fetch data first using getLatestCryptoListings.";
+        }
+        String quoteCurrency = quoteCurrency(current, currency);
+        if (quoteCurrency == null) {
+            return unknownCurrency(current, currency);
+        }
+
+        // Symbols are matched case-insensitively and echoed upper-cased, so their case does not change the response.
+        String args = (symbols == null ? "" : symbols.toUpperCase(Locale.ROOT)) + " " + quoteCurrency;
+        return responseCache.get("getMarketOverview", args, current.getVersion(), () -> {
+            QuoteColumns quotes = current.getQuotes(quoteCurrency);
+            MarketAggregates aggregates = current.getAggregates(quoteCurrency);
+
+            StringBuilder sb = new StringBuilder(1024);
+            sb.append("Market overview (").append(quoteCurrency).append(") for ").append(aggregates.getCoins())
+              .append(" cryptocurrencies, snapshot v").append(current.getVersion()).append(":\n");
+            appendMoney(sb.append("Total Market Cap: "), aggregates.getTotalMarketCap(), quoteCurrency).append("\n");
+            appendMoney(sb.append("Total 24h Volume: "), aggregates.getTotalVolume24h(), quoteCurrency).append("\n");
+            appendDominance(sb.append("Dominance: "), current, quotes, aggregates, symbols).append("\n");
+
+            int[] buckets = MarketAggregates.rankBuckets();
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                // Buckets past the last listed rank repeat the previous sums.
+                if (aggregates.getBucketCoins(bucket) == 0 || bucket > 0 && aggregates.getBucketCoins(bucket) == aggregates.getBucketCoins(bucket - 1)) {
+                    break;
+                }
+                sb.append("Top ").append(buckets[bucket]).append(": ");
+                appendMoney(sb.append("Market Cap "), aggregates.getBucketMarketCap(bucket), quoteCurrency);
+                appendDecimal(sb.append(" ("), aggregates.dominance(aggregates.getBucketMarketCap(bucket))).append("% of total), ");
+                appendMoney(sb.append("24h Volume "), aggregates.getBucketVolume24h(bucket), quoteCurrency).append("\n");
+            }
+
+            for (QuoteColumns.Field field : new QuoteColumns.Field[]{QuoteColumns.Field.PERCENT_CHANGE_1H,
+                    QuoteColumns.Field.PERCENT_CHANGE_24H, QuoteColumns.Field.PERCENT_CHANGE_7D, QuoteColumns.Field.PERCENT_CHANGE_30D}) {
+                if (aggregates.getChangeCoins(field) == 0) {
+                    continue;
+                }
+                sb.append(field.key().substring("percent_change_".length())).append(" Change: ");
+                appendDecimal(sb.append("mean "), aggregates.getMeanChange(field)).append("%, ");
+                appendDecimal(sb.append("median "), aggregates.getMedianChange(field)).append("% (");
+                sb.append(aggregates.getAdvancing(field)).append(" up, ").append(aggregates.getDeclining(field)).append(" down)\n");
+            }
+            return sb.toString();
+        });
+    }
+
+    @Tool(name = "getCryptosByTag", description = "Lists the cached cryptocurrencies carrying a combination of tags, e.g. 'defi and ethereum-ecosystem' or 'meme or gaming', with their combined market cap and 24h volume; without tags lists the most common tags")
+    public String getCryptosByTag(@ToolParam(required = false, description = "tag expression: tags joined by 'and' (or ',') bind tighter than 'or'; omit to list the most common tags") String tags,
+                                  @ToolParam(required = false, description = "max number of coins (or tags) to return") Integer limit,
+                                  @ToolParam(required = false, description = "quote currency (e.g., USD, EUR); defaults to USD") String currency) {
+        logger.info("Getting cryptocurrencies by tags: " + tags);
+
+        CryptoSnapshot current = snapshotStore.current();
+        if (current.isEmpty()) {
+            return "No cryptocurrencies in cache. Please fetch data first using getLatestCryptoListings.";
+        }
+        String quoteCurrency = quoteCurrency(current, currency);
+        if (quoteCurrency == null) {
+            return unknownCurrency(current, currency);
+        }
+        int count = limit == null || limit <= 0 ? LISTINGS_DEFAULT_LIMIT : limit;
+
+        TagIndex tagIndex = current.getTagIndex();
+        if (tags == null || tags.isBlank()) {
+            if (tagIndex.size() == 0) {
+                return "No tags in cache";
+            }
+            List<String> common = tagIndex.mostCommon(count);
+            StringBuilder sb = new StringBuilder(64 + common.size() * 32);
+            sb.append("Found ").append(tagIndex.size()).append(" tag(s), showing the ").append(common.size()).append(" most common:\n");
+            for (String tag : common) {
+                sb.append(tag).append(" (").append(tagIndex.count(tag)).append(")\n");
+            }
+            return sb.toString();
+        }
+
+        List<List<String>> anyOf;
+        try {
+            anyOf = TagIndex.parse(tags);
+        } catch (IllegalArgumentException e) {
+            return "Invalid tags: " + e.getMessage();
+        }
+        String description = TagIndex.describe(anyOf);
+
+        return responseCache.get("getCryptosByTag", description + " " + count + " " + quoteCurrency, current.getVersion(), () -> {
+            BitSet matches = tagIndex.match(anyOf);
+            if (matches.isEmpty()) {
+                return "No cryptocurrencies tagged " + description;
+            }
+
+            // Ordinals come out of the bitset in rank order; only the matching coins are visited.
+            QuoteColumns quotes = current.getQuotes(quoteCurrency);
+            double marketCap = 0;
+            double volume24h = 0;
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                marketCap += Double.isNaN(quotes.marketCap(ordinal)) ? 0 : quotes.marketCap(ordinal);
+                volume24h += Double.isNaN(quotes.volume24h(ordinal)) ? 0 : quotes.volume24h(ordinal);
+            }
+
+            int shown = Math.min(count, matches.cardinality());
+            StringBuilder sb = new StringBuilder(128 + shown * (SUMMARY_CHARS + 1));
+            sb.append("Found ").append(matches.cardinality()).append(" cryptocurrency(ies) tagged ").append(description)
+              .append(", showing ").append(shown).append(":\n");
+            appendMoney(sb.append("Combined Market Cap: "), marketCap, quoteCurrency);
+            appendDecimal(sb.append(" ("), current.getAggregates(quoteCurrency).dominance(marketCap)).append("% of total), ");
+            appendMoney(sb.append("24h Volume "), volume24h, quoteCurrency).append("\n");
+            for (int ordinal = matches.nextSetBit(0), i = 0; i < shown; ordinal = matches.nextSetBit(ordinal + 1), i++) {
+                appendCryptoSummary(sb, current, ordinal, quoteCurrency).append("\n");
+            }
+            return sb.toString();
+        });
+    }
+
+    @Tool(name = "getPriceHistory", description = "Returns the recent price, market cap and 24h volume samples recorded on each refresh for the top-ranked cryptocurrency with the given symbol, oldest first")
+    public String getPriceHistory(@ToolParam(required = true, description = "the symbol of the crypto (e.g., BTC, ETH)") String symbol,
+                                  @ToolParam(required = false, description = "max number of most recent samples to return") Integer count) {
+        logger.info("Getting price history for symbol: " + symbol);
+
+        if (symbol == null || symbol.trim().isEmpty()) {
+            return "Please provide a valid cryptocurrency symbol";
+        }
+        if (!quoteHistory.isEnabled()) {
+            return "Price history is disabled (coinmarketcap.history.capacity=0)";
+        }
+        if (count == null || count <= 0) {
+            count = LISTINGS_DEFAULT_LIMIT;
+        }
+
+        CryptoSnapshot current = snapshotStore.current();
+        int[] matches = current.findBySymbol(symbol);
+        if (matches.length == 0) {
+            return "Cryptocurrency with symbol '" + symbol + "' not found in cache";
+        }
+
+        int ordinal = matches[0];
+        String coin = current.getName(ordinal) + " (" + current.getSymbol(ordinal) + ")";
+        QuoteHistory.Series series = quoteHistory.series(current.getId(ordinal), count);
+        if (series.isEmpty()) {
+            return "No price history recorded yet for " + coin;
+        }
+
+        StringBuilder result = new StringBuilder("Price history for " + coin + ", " + series.size() + " sample(s):\n");
+        String currency = series.getCurrency();
+        for (int i = 0; i < series.size(); i++) {
+            appendMoney(result.append(Instant.ofEpochMilli(series.timestamp(i))).append(" - "), series.price(i), currency);
+            appendMoney(result.append(" (Market Cap: "), series.marketCap(i), currency);
+            appendMoney(result.append(", 24h Volume: "), series.volume24h(i), currency).append(")\n");
+        }
+        if (series.size() > 1 && series.price(0) != 0) {
+            double change = (series.price(series.size() - 1) / series.price(0) - 1) * 100;
+            appendDecimal(result.append("Change over period: "), change).append("%\n");
         }
 
         return result.toString();
     }
 
     private int getCachedCount() {
-        return cachedCryptocurrencies.size();
+        return snapshotStore.current().size();
     }
 
-    private String formatCryptoInfo(CryptoCurrency crypto) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== ").append(crypto.getName()).append(" (").append(crypto.getSymbol()).append(") ===\n");
-        sb.append("Rank: #").append(crypto.getCmcRank()).append("\n");
-        sb.append("Circulating Supply: ").append(crypto.getCirculatingSupply()).append("\n");
-        sb.append("Total Supply: ").append(crypto.getTotalSupply()).append("\n");
-        sb.append("Max Supply: ").append(crypto.getMaxSupply()).append("\n");
+    // Quotes are served from the snapshot in every fetched convert currency; none costs an upstream call.
+    private static String quoteCurrency(CryptoSnapshot snapshot, String currency) {
+        if (currency == null || currency.isBlank()) {
+            return snapshot.getDefaultCurrency();
+        }
+        String normalized = CryptoSnapshot.normalizeCurrency(currency);
+        return snapshot.getQuotes(normalized) != null ? normalized : null;
+    }
+
+    private static String unknownCurrency(CryptoSnapshot snapshot, String currency) {
+        return "Quotes in '" + currency.trim() + "' are not cached; available currencies: " +
+               String.join(", ", snapshot.getCurrencies()) + " (see coinmarketcap.api.convert)";
+    }
 
-        if (crypto.getQuote() != null && crypto.getQuote().containsKey("USD")) {
-            var usdQuote = crypto.getQuote().get("USD");
-            sb.append("Price (USD): $").append(String.format("%.2f", usdQuote.getPrice())).append("\n");
-            sb.append("Market Cap (USD): $").append(String.format("%.2f", usdQuote.getMarketCap())).append("\n");
-            sb.append("24h Volume: $").append(String.format("%.2f", usdQuote.getVolume24h())).append("\n");
-            sb.append("24h Change: ").append(String.format("%.2f", usdQuote.getPercentChange24h())).append("%\n");
-            sb.append("7d Change: ").append(String.format("%.2f", usdQuote.getPercentChange7d())).append("%\n");
+    private StringBuilder appendCryptoInfo(StringBuilder sb, CryptoSnapshot snapshot, int ordinal, String currency) {
+        sb.append("=== ").append(snapshot.getName(ordinal)).append(" (").append(snapshot.getSymbol(ordinal)).append(") ===\n");
+        appendRank(sb.append("Rank: #"), snapshot.getRank(ordinal)).append("\n");
+        appendNullable(sb.append("Circulating Supply: "), snapshot.getCirculatingSupply(ordinal)).append("\n");
+        appendNullable(sb.append("Total Supply: "), snapshot.getTotalSupply(ordinal)).append("\n");
+        appendNullable(sb.append("Max Supply: "), snapshot.getMaxSupply(ordinal)).append("\n");
+
+        QuoteColumns quote = snapshot.getQuotes(currency);
+        if (quote.hasQuote(ordinal)) {
+            appendMoney(sb.append("Price (").append(currency).append("): "), quote.price(ordinal), currency).append("\n");
+            appendMoney(sb.append("Market Cap (").append(currency).append("): "), quote.marketCap(ordinal), currency).append("\n");
+            appendMoney(sb.append("24h Volume: "), quote.volume24h(ordinal), currency).append("\n");
+            appendDecimal(sb.append("24h Change: "), quote.percentChange24h(ordinal)).append("%\n");
+            appendDecimal(sb.append("7d Change: "), quote.percentChange7d(ordinal)).append("%\n");
         }
 
-        return sb.toString();
+        return sb;
     }
 
-    private String formatCryptoSummary(CryptoCurrency crypto) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("#").append(crypto.getCmcRank()).append(" ");
-        sb.append(crypto.getName()).append(" (").append(crypto.getSymbol()).append(")");
+    private StringBuilder appendCryptoSummary(StringBuilder sb, CryptoSnapshot snapshot, int ordinal, String currency) {
+        appendRank(sb.append("#"), snapshot.getRank(ordinal)).append(" ");
+        sb.append(snapshot.getName(ordinal)).append(" (").append(snapshot.getSymbol(ordinal)).append(")");
+
+        QuoteColumns quote = snapshot.getQuotes(currency);
+        if (quote.hasQuote(ordinal)) {
+            appendMoney(sb.append(" - "), quote.price(ordinal), currency);
+            appendDecimal(sb.append(" (24h: "), quote.percentChange24h(ordinal)).append("%)");
+        }
+
+        return sb;
+    }
 
-        if (crypto.getQuote() != null && crypto.getQuote().containsKey("USD")) {
-            var usdQuote = crypto.getQuote().get("USD");
-            sb.append(" - $").append(String.format("%.2f", usdQuote.getPrice()));
-            sb.append(" (24h: ").append(String.format("%.2f", usdQuote.getPercentChange24h())).append("%)");
+    private StringBuilder appendMovers(StringBuilder sb, String direction, QuoteQuery.Result movers, CryptoSnapshot snapshot,
+                                       QuoteColumns quotes, QuoteColumns.Field field, String period, String scope, String currency) {
+        if (movers.ordinals().length == 0) {
+            return sb.append("No ").append(direction).append(" by ").append(period).append(" change").append(scope).append("\n");
         }
+        sb.append("Top ").append(movers.ordinals().length).append(" ").append(direction).append(" by ").append(period)
+          .append(" change").append(scope).append(":\n");
+        for (int ordinal : movers.ordinals()) {
+            appendMover(sb, snapshot, quotes, ordinal, field, period, currency).append("\n");
+        }
+        return sb;
+    }
+
+    private StringBuilder appendMover(StringBuilder sb, CryptoSnapshot snapshot, QuoteColumns quotes, int ordinal,
+                                      QuoteColumns.Field field, String period, String currency) {
+        appendRank(sb.append("#"), snapshot.getRank(ordinal)).append(" ");
+        sb.append(snapshot.getName(ordinal)).append(" (").append(snapshot.getSymbol(ordinal)).append(")");
+        appendMoney(sb.append(" - "), quotes.price(ordinal), currency);
+        return appendDecimal(sb.append(" (").append(period).append(": "), quotes.get(field, ordinal)).append("%)");
+    }
+
+    // Dominance is one division per coin against the precomputed total.
+    private static StringBuilder appendDominance(StringBuilder sb, CryptoSnapshot snapshot, QuoteColumns quotes,
+                                                 MarketAggregates aggregates, String symbols) {
+        int listed = 0;
+        if (symbols != null && !symbols.isBlank()) {
+            for (String symbol : symbols.split(",")) {
+                if (symbol.isBlank()) {
+                    continue;
+                }
+                int[] matches = snapshot.findBySymbol(symbol);
+                sb.append(listed++ > 0 ? ", " : "");
+                if (matches.length == 0) {
+                    sb.append(symbol.trim().toUpperCase(Locale.ROOT)).append(" not found");
+                } else {
+                    appendDecimal(sb.append(snapshot.getSymbol(matches[0])).append(' '),
+                            aggregates.dominance(quotes.marketCap(matches[0]))).append('%');
+                }
+            }
+            return sb;
+        }
+
+        for (int ordinal = 0; ordinal < snapshot.size() && listed < DOMINANCE_COINS; ordinal++) {
+            if (!Double.isNaN(quotes.marketCap(ordinal))) {
+                sb.append(listed++ > 0 ? ", " : "").append(snapshot.getSymbol(ordinal)).append(' ');
+                appendDecimal(sb, aggregates.dominance(quotes.marketCap(ordinal))).append('%');
+            }
+        }
+        return sb;
+    }
+
+    private static String describe(QuoteQuery query) {
+        String filters = query.hasFilters() ? query.describeFilters() : "any quote";
+        return query.getSortField() == null
+                ? filters + ", by rank"
+                : filters + ", sorted by " + query.getSortField().key() + (query.isDescending() ? " desc" : " asc");
+    }
+
+    private static StringBuilder appendField(StringBuilder sb, QuoteColumns quotes, QuoteColumns.Field field, int ordinal,
+                                             String currency) {
+        double value = quotes.get(field, ordinal);
+        return field.isPercent() ? appendDecimal(sb, value).append('%') : appendMoney(sb, value, currency);
+    }
+
+    // USD keeps the "$" prefix the tools have always used; other currencies are suffixed with their code.
+    private static StringBuilder appendMoney(StringBuilder sb, double value, String currency) {
+        if (CryptoSnapshot.QUOTE_CURRENCY.equals(currency)) {
+            return appendDecimal(sb.append('$'), value);
+        }
+        if (Double.isNaN(value)) {
+            return sb.append("null");
+        }
+        int decimals = FIAT_CURRENCIES.contains(currency) ? 2 : CRYPTO_DECIMALS;
+        return FixedPointFormat.appendFixed(sb, value, decimals).append(' ').append(currency);
+    }
+
+    // Columns store missing values as NaN / NO_RANK; render them as the boxed DTO fields did.
+    private static StringBuilder appendRank(StringBuilder sb, int rank) {
+        return rank == CryptoSnapshot.NO_RANK ? sb.append("null") : sb.append(rank);
+    }
+
+    private static StringBuilder appendNullable(StringBuilder sb, double value) {
+        return Double.isNaN(value) ? sb.append("null") : sb.append(value);
+    }
 
-        return sb.toString();
+    private static StringBuilder appendDecimal(StringBuilder sb, double value) {
+        return Double.isNaN(value) ? sb.append("null") : FixedPointFormat.appendTwoDecimals(sb, value);
     }
 }
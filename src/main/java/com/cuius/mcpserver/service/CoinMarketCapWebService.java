@@ -1,43 +1,318 @@
 package com.cuius.mcpserver.service;
 
 import com.cuius.mcpserver.dto.CoinMarketCapResponse;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+import com.cuius.mcpserver.dto.Status;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 @Service
 public class CoinMarketCapWebService {
     private static final Logger logger = Logger.getLogger(CoinMarketCapWebService.class.getName());
     private final WebClient webClient;
+    private final ListingsStreamDecoder streamDecoder;
+    private final CoinMarketCapMetrics metrics;
+    private final AtomicReference<InFlightFetch> inFlight = new AtomicReference<>();
+    private final AtomicLong coalescedFetches = new AtomicLong();
 
     @Value("${coinmarketcap.api.key:your-api-key-here}")
     private String apiKey;
     @Value("${coinmarketcap.api.listings}")
     private String LISTINGS_ENDPOINT;
+    @Value("${coinmarketcap.api.listings.page-size:5000}")
+    private int pageSize = 5000;
+    @Value("${coinmarketcap.api.listings.page-parallelism:4}")
+    private int pageParallelism = 4;
+    @Value("${coinmarketcap.api.listings.page-retries:2}")
+    private int pageRetries = 2;
+    @Value("${coinmarketcap.api.listings.page-retry-backoff:250ms}")
+    private Duration pageRetryBackoff = Duration.ofMillis(250);
+    @Value("${coinmarketcap.api.convert:USD}")
+    private String[] convert = {"USD"};
+    @Value("${coinmarketcap.api.convert-batch-size:1}")
+    private int convertBatchSize = 1;
 
-    public CoinMarketCapWebService(WebClient.Builder webClientBuilder,
-                                   @Value("${coinmarketcap.api.base-url}") String baseUrl) {
-        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+    public CoinMarketCapWebService(WebClient coinMarketCapWebClient, CoinMarketCapMetrics metrics) {
+        this.webClient = coinMarketCapWebClient;
+        this.streamDecoder = new ListingsStreamDecoder(Jackson2ObjectMapperBuilder.json().build());
+        this.metrics = metrics;
+        metrics.bindCoalescedFetches(this, CoinMarketCapWebService::getCoalescedFetchCount);
     }
 
     public CoinMarketCapResponse getCoinMarketCapWebResponse(Integer limit) {
+        return fetchListings(limit).block();
+    }
+
+    /**
+     * Fetches the latest listings, joining an upstream request that is already in flight when it
+     * asks for at least {@code limit} entries instead of issuing a second, identical request. Only the
+     * caller that started the request sees its {@code credit_count}; joined callers get a status
+     * reporting 0 credits, so the one upstream charge is settled once.
+     */
+    public Mono<CoinMarketCapResponse> fetchListings(int limit) {
+        while (true) {
+            InFlightFetch current = inFlight.get();
+            if (current != null && current.limit >= limit) {
+                coalescedFetches.incrementAndGet();
+                return current.response.map(response -> joined(response, limit));
+            }
+
+            InFlightFetch fetch = new InFlightFetch(limit);
+            if (inFlight.compareAndSet(current, fetch)) {
+                return fetch.response;
+            }
+        }
+    }
+
+    public long getCoalescedFetchCount() {
+        return coalescedFetches.get();
+    }
+
+    /**
+     * Streams the latest listings entry by entry as the response bodies are decoded, paging the same
+     * way as {@link #fetchListings(int)}. Concurrent pages interleave, so entries are not in rank
+     * order. With several convert batches each coin is emitted once per
+     * batch carrying that batch's quotes; {@link com.cuius.mcpserver.cache.CryptoSnapshot.Builder}
+     * merges them. {@code statusListener} receives each request's status and may be called from several
+     * threads when requests run concurrently.
+     *
+     * <p>Like {@link #fetchListings(int)}, a stream joins a buffered fetch already in flight for at least
+     * {@code limit} entries and replays its entries, reporting 0 credits. A stream does not take the
+     * in-flight slot itself: entries are handed to the caller as they are decoded and never collected,
+     * so a fetch arriving mid-stream has no response to share, and replaying the stream to it would keep
+     * every entry in memory, which streaming exists to avoid. Such a fetch requests the listings itself.
+     */
+    public Flux<CryptoCurrency> streamListings(int limit, Consumer<Status> statusListener) {
+        InFlightFetch current = inFlight.get();
+        if (current != null && current.limit >= limit) {
+            coalescedFetches.incrementAndGet();
+            return current.response.flatMapIterable(response -> {
+                CoinMarketCapResponse joined = joined(response, limit);
+                if (statusListener != null) {
+                    statusListener.accept(joined.getStatus());
+                }
+                return joined.getData() != null ? joined.getData() : List.of();
+            });
+        }
+
+        List<String> batches = convertBatches();
+        if (limit <= pageSize && batches.size() == 1) {
+            return streamPage(null, limit, batches.get(0), statusListener);
+        }
+
+        int pages = (limit + pageSize - 1) / pageSize;
+        logger.info("Streaming " + limit + " listings in " + pages + " pages of " + pageSize + describeBatches(batches));
+        // Entries are emitted in arrival order rather than page order, so no page waits in memory for an
+        // earlier one to finish; the snapshot builder restores rank order.
+        return Flux.range(0, pages * batches.size())
+                .flatMap(request -> {
+                    int page = request / batches.size();
+                    Integer start = pages == 1 ? null : page * pageSize + 1;
+                    int size = Math.min(pageSize, limit - page * pageSize);
+                    return streamPage(start, size, batches.get(request % batches.size()), statusListener)
+                            .retryWhen(pageRetry(start != null ? start : 1));
+                }, pageParallelism);
+    }
+
+    private Flux<CryptoCurrency> streamPage(Integer start, int limit, String convert, Consumer<Status> statusListener) {
+        return streamDecoder.decode(listingsRequest(start, limit, convert).bodyToFlux(DataBuffer.class), status -> {
+            metrics.recordStatus(status);
+            if (statusListener != null) {
+                statusListener.accept(status);
+            }
+        });
+    }
+
+    private Mono<CoinMarketCapResponse> requestListings(int limit) {
+        List<String> batches = convertBatches();
+        if (limit <= pageSize && batches.size() == 1) {
+            return requestPage(null, limit, batches.get(0))
+                    .onErrorResume(e -> {
+                        logger.severe("Error fetching cryptocurrency data: " + e.getMessage());
+                        return Mono.empty();
+                    });
+        }
+
+        // Every page is requested once per convert batch; all of them run concurrently.
+        int pages = (limit + pageSize - 1) / pageSize;
+        logger.info("Fetching " + limit + " listings in " + pages + " pages of " + pageSize + describeBatches(batches));
+        return Flux.range(0, pages * batches.size())
+                .flatMapSequential(request -> {
+                    int page = request / batches.size();
+                    Integer start = pages == 1 ? null : page * pageSize + 1;
+                    int size = Math.min(pageSize, limit - page * pageSize);
+                    return requestPage(start, size, batches.get(request % batches.size()))
+                            .retryWhen(pageRetry(start != null ? start : 1));
+                }, pageParallelism)
+                .collectList()
+                .map(CoinMarketCapWebService::mergePages)
+                .onErrorResume(e -> {
+                    logger.severe("Error fetching paginated cryptocurrency data: " + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<CoinMarketCapResponse> requestPage(Integer start, int limit, String convert) {
+        return listingsRequest(start, limit, convert).bodyToMono(CoinMarketCapResponse.class)
+                .doOnNext(response -> metrics.recordStatus(response.getStatus()));
+    }
+
+    private WebClient.ResponseSpec listingsRequest(Integer start, int limit, String convert) {
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path(LISTINGS_ENDPOINT)
+                        .queryParamIfPresent("start", Optional.ofNullable(start))
                         .queryParam("limit", limit)
-                        .queryParam("convert", "USD")
+                        .queryParam("convert", convert)
                         .build())
                 .header("X-CMC_PRO_API_KEY", apiKey)
                 .header("Accept", "application/json")
-                .retrieve()
-                .bodyToMono(CoinMarketCapResponse.class)
-                .onErrorResume(e -> {
-                    logger.severe("Error fetching cryptocurrency data: " + e.getMessage());
-                    return Mono.empty();
-                })
-                .block();
+                .retrieve();
+    }
+
+    /**
+     * Splits the configured convert currencies into comma-joined groups of at most
+     * {@code convert-batch-size}, the number of currencies the API plan accepts per call.
+     */
+    List<String> convertBatches() {
+        List<String> currencies = new ArrayList<>();
+        for (String currency : convert) {
+            if (currency != null && !currency.isBlank() && !currencies.contains(currency.trim().toUpperCase(Locale.ROOT))) {
+                currencies.add(currency.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        if (currencies.isEmpty()) {
+            currencies.add("USD");
+        }
+
+        int batchSize = Math.max(1, convertBatchSize);
+        List<String> batches = new ArrayList<>();
+        for (int i = 0; i < currencies.size(); i += batchSize) {
+            batches.add(String.join(",", currencies.subList(i, Math.min(currencies.size(), i + batchSize))));
+        }
+        return batches;
+    }
+
+    private static String describeBatches(List<String> batches) {
+        return batches.size() == 1 ? "" : ", once per convert batch " + batches;
+    }
+
+    private Retry pageRetry(int start) {
+        return Retry.backoff(pageRetries, pageRetryBackoff)
+                .filter(CoinMarketCapWebService::isRetryable)
+                .doBeforeRetry(signal -> logger.warning("Retrying listings page starting at " + start +
+                        " after: " + signal.failure().getMessage()));
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError() || responseException.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException;
+    }
+
+    // Ranks can shift between page requests, so a coin may show up on two adjacent pages; convert
+    // batches list the same coins again, and only contribute the quote currencies not seen yet.
+    private static CoinMarketCapResponse mergePages(List<CoinMarketCapResponse> pages) {
+        Map<Long, CryptoCurrency> merged = new LinkedHashMap<>();
+        List<CryptoCurrency> withoutId = new ArrayList<>();
+        Status status = null;
+        int credits = 0;
+        int elapsed = 0;
+        for (CoinMarketCapResponse page : pages) {
+            if (page.getStatus() != null) {
+                status = status != null ? status : page.getStatus();
+                credits += page.getStatus().getCreditCount() != null ? page.getStatus().getCreditCount() : 0;
+                elapsed = Math.max(elapsed, page.getStatus().getElapsed() != null ? page.getStatus().getElapsed() : 0);
+            }
+            if (page.getData() != null) {
+                for (CryptoCurrency crypto : page.getData()) {
+                    if (crypto.getId() == null) {
+                        withoutId.add(crypto);
+                    } else {
+                        merged.merge(crypto.getId(), crypto, CoinMarketCapWebService::mergeQuotes);
+                    }
+                }
+            }
+        }
+
+        Status mergedStatus = new Status();
+        if (status != null) {
+            mergedStatus.setTimestamp(status.getTimestamp());
+            mergedStatus.setErrorCode(status.getErrorCode());
+            mergedStatus.setErrorMessage(status.getErrorMessage());
+            mergedStatus.setNotice(status.getNotice());
+        }
+        mergedStatus.setCreditCount(credits);
+        mergedStatus.setElapsed(elapsed);
+
+        List<CryptoCurrency> data = new ArrayList<>(merged.values());
+        data.addAll(withoutId);
+        CoinMarketCapResponse response = new CoinMarketCapResponse();
+        response.setStatus(mergedStatus);
+        response.setData(data);
+        return response;
+    }
+
+    private static CryptoCurrency mergeQuotes(CryptoCurrency first, CryptoCurrency later) {
+        if (later.getQuote() != null) {
+            Map<String, Quote> quotes = first.getQuote() != null ? new LinkedHashMap<>(first.getQuote()) : new LinkedHashMap<>();
+            later.getQuote().forEach(quotes::putIfAbsent);
+            first.setQuote(quotes);
+        }
+        return first;
+    }
+
+    private static CoinMarketCapResponse joined(CoinMarketCapResponse response, int limit) {
+        Status status = new Status();
+        if (response.getStatus() != null) {
+            status.setTimestamp(response.getStatus().getTimestamp());
+            status.setErrorCode(response.getStatus().getErrorCode());
+            status.setErrorMessage(response.getStatus().getErrorMessage());
+            status.setElapsed(response.getStatus().getElapsed());
+            status.setNotice(response.getStatus().getNotice());
+        }
+        status.setCreditCount(0);
+
+        CoinMarketCapResponse joined = new CoinMarketCapResponse();
+        joined.setStatus(status);
+        joined.setData(response.getData() == null || response.getData().size() <= limit
+                ? response.getData()
+                : List.copyOf(response.getData().subList(0, limit)));
+        return joined;
+    }
+
+    private final class InFlightFetch {
+        private final int limit;
+        private final Mono<CoinMarketCapResponse> response;
+
+        private InFlightFetch(int limit) {
+            this.limit = limit;
+            this.response = requestListings(limit)
+                    .doFinally(signal -> inFlight.compareAndSet(this, null))
+                    .cache();
+        }
     }
 }
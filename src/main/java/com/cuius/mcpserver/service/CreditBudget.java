@@ -0,0 +1,198 @@
+package com.cuius.mcpserver.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tracks CoinMarketCap API credits spent in the current UTC minute and UTC day against configured
+ * budgets (0 means unlimited). Callers reserve the estimated cost of a request up front, which may
+ * shrink the request to what is still affordable, and settle the {@link Reservation} with the
+ * {@code credit_count} the API actually charged.
+ */
+@Component
+public class CreditBudget {
+    /**
+     * Listings endpoints charge one credit per 200 entries returned, rounded up.
+     */
+    public static final int LISTINGS_PER_CREDIT = 200;
+
+    private final Clock clock;
+    private final int creditsPerMinute;
+    private final int creditsPerDay;
+
+    private long minute = Long.MIN_VALUE;
+    private LocalDate day = LocalDate.MIN;
+    private int usedThisMinute;
+    private int usedToday;
+
+    @Autowired
+    public CreditBudget(@Value("${coinmarketcap.budget.credits-per-minute:0}") int creditsPerMinute,
+                        @Value("${coinmarketcap.budget.credits-per-day:0}") int creditsPerDay) {
+        this(Clock.systemUTC(), creditsPerMinute, creditsPerDay);
+    }
+
+    public CreditBudget(Clock clock, int creditsPerMinute, int creditsPerDay) {
+        this.clock = clock;
+        this.creditsPerMinute = creditsPerMinute;
+        this.creditsPerDay = creditsPerDay;
+    }
+
+    public static CreditBudget unlimited() {
+        return new CreditBudget(Clock.systemUTC(), 0, 0);
+    }
+
+    public static int creditsFor(int listings) {
+        return Math.max(1, (listings + LISTINGS_PER_CREDIT - 1) / LISTINGS_PER_CREDIT);
+    }
+
+    /**
+     * Estimated cost of fetching {@code listings} once per convert batch: every batch requests the
+     * same pages again with other quote currencies and is charged separately.
+     */
+    public static int creditsFor(int listings, int batches) {
+        return creditsFor(listings) * Math.max(1, batches);
+    }
+
+    public boolean isLimited() {
+        return creditsPerMinute > 0 || creditsPerDay > 0;
+    }
+
+    /**
+     * Reserves credits for fetching up to {@code limit} listings. The reservation's listings are
+     * {@code limit} itself, fewer when only part of it is affordable, or 0 when the budget is
+     * exhausted.
+     */
+    public Reservation reserve(int limit) {
+        return reserve(limit, 1);
+    }
+
+    /**
+     * Like {@link #reserve(int)} for a fetch repeated for each of {@code batches} convert batches;
+     * the listings reserved are affordable in every batch.
+     */
+    public synchronized Reservation reserve(int limit, int batches) {
+        roll();
+        int affordableCredits = Math.min(remaining(creditsPerMinute, usedThisMinute), remaining(creditsPerDay, usedToday));
+        int creditsPerBatch = affordableCredits / Math.max(1, batches);
+        if (creditsPerBatch <= 0) {
+            return new Reservation(0, 0, minute, day);
+        }
+
+        int listings = Math.min(limit, (int) Math.min(Integer.MAX_VALUE, (long) creditsPerBatch * LISTINGS_PER_CREDIT));
+        int credits = creditsFor(listings, batches);
+        charge(credits);
+        return new Reservation(listings, credits, minute, day);
+    }
+
+    /**
+     * Replaces the estimate held by {@code reservation} with what the API reported; a missing count
+     * keeps the estimate. A caller that was served by another caller's request settles with 0, which
+     * releases the whole reservation. The estimate was only ever counted in the minute and day it was
+     * reserved in, so the adjustment is dropped for a window that has rolled over since.
+     */
+    public synchronized void settle(Reservation reservation, Integer chargedCredits) {
+        if (reservation.getListings() <= 0 || chargedCredits == null) {
+            return;
+        }
+        roll();
+        int adjustment = chargedCredits - reservation.credits;
+        if (reservation.minute == minute) {
+            usedThisMinute = Math.max(0, usedThisMinute + adjustment);
+        }
+        if (reservation.day.equals(day)) {
+            usedToday = Math.max(0, usedToday + adjustment);
+        }
+    }
+
+    public synchronized int usedToday() {
+        roll();
+        return usedToday;
+    }
+
+    public int getCreditsPerDay() {
+        return creditsPerDay;
+    }
+
+    /**
+     * How long until at least one credit is available again: zero while there is budget left,
+     * otherwise until the exhausted minute or day window rolls over.
+     */
+    public synchronized Duration untilAvailable() {
+        roll();
+        Instant now = clock.instant();
+        if (creditsPerDay > 0 && usedToday >= creditsPerDay) {
+            return Duration.between(now, day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        }
+        if (creditsPerMinute > 0 && usedThisMinute >= creditsPerMinute) {
+            return Duration.between(now, now.truncatedTo(ChronoUnit.MINUTES).plus(1, ChronoUnit.MINUTES));
+        }
+        return Duration.ZERO;
+    }
+
+    /**
+     * The shortest interval at which fetching {@code limit} listings repeatedly stays within the
+     * daily budget.
+     */
+    public Duration sustainableInterval(int limit) {
+        return sustainableInterval(limit, 1);
+    }
+
+    public Duration sustainableInterval(int limit, int batches) {
+        if (creditsPerDay <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofDays(1).multipliedBy(creditsFor(limit, batches)).dividedBy(creditsPerDay);
+    }
+
+    private void charge(int credits) {
+        usedThisMinute = Math.max(0, usedThisMinute + credits);
+        usedToday = Math.max(0, usedToday + credits);
+    }
+
+    private void roll() {
+        Instant now = clock.instant();
+        long currentMinute = now.getEpochSecond() / 60;
+        if (currentMinute != minute) {
+            minute = currentMinute;
+            usedThisMinute = 0;
+        }
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        if (!today.equals(day)) {
+            day = today;
+            usedToday = 0;
+        }
+    }
+
+    private static int remaining(int budget, int used) {
+        return budget > 0 ? budget - used : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Credits held for one fetch until it is settled, with the minute and day they were counted in.
+     */
+    public static final class Reservation {
+        private final int listings;
+        private final int credits;
+        private final long minute;
+        private final LocalDate day;
+
+        private Reservation(int listings, int credits, long minute, LocalDate day) {
+            this.listings = listings;
+            this.credits = credits;
+            this.minute = minute;
+            this.day = day;
+        }
+
+        public int getListings() {
+            return listings;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.cuius.mcpserver.service;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.dto.Status;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the listings snapshot warm in the background. Readers keep being served from the current
+ * (possibly stale) snapshot while a refresh is in flight; the new snapshot is swapped in once complete.
+ */
+@Component
+public class CryptoListingsRefresher {
+    private static final Logger logger = Logger.getLogger(CryptoListingsRefresher.class.getName());
+
+    private final CoinMarketCapWebService webService;
+    private final CryptoSnapshotStore snapshotStore;
+    private final CreditBudget creditBudget;
+    private ScheduledExecutorService scheduler;
+
+    @Value("${coinmarketcap.refresh.enabled:false}")
+    private boolean enabled;
+    @Value("${coinmarketcap.refresh.interval:5m}")
+    private Duration interval;
+    @Value("${coinmarketcap.refresh.initial-delay:0s}")
+    private Duration initialDelay;
+    @Value("${coinmarketcap.refresh.jitter:15s}")
+    private Duration jitter;
+    @Value("${coinmarketcap.refresh.limit:${coinmarketcap.api.listings.default-limit}}")
+    private Integer limit;
+
+    public CryptoListingsRefresher(CoinMarketCapWebService webService, CryptoSnapshotStore snapshotStore,
+                                   CreditBudget creditBudget) {
+        this.webService = webService;
+        this.snapshotStore = snapshotStore;
+        this.creditBudget = creditBudget;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Background listings refresh is disabled");
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cmc-listings-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Background listings refresh every " + interval + " (jitter " + jitter + ", limit " + limit + ")" +
+                (creditBudget.isLimited() ? ", at least " + creditBudget.sustainableInterval(limit, webService.convertBatches().size()) + " apart to fit the credit budget" : ""));
+        scheduler.schedule(this::runAndReschedule, initialDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean refreshNow() {
+        if (!snapshotStore.tryBeginRefresh()) {
+            logger.fine("Listings refresh already in progress, skipping");
+            return false;
+        }
+
+        // Every convert batch fetches the pages again and is charged for them.
+        int batches = webService.convertBatches().size();
+        CreditBudget.Reservation reservation = null;
+        AtomicReference<Integer> credits = new AtomicReference<>();
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder();
+        try {
+            reservation = creditBudget.reserve(limit, batches);
+            if (reservation.getListings() == 0) {
+                logger.warning("Credit budget exhausted; keeping snapshot v" + snapshotStore.current().getVersion() +
+                        " for another " + creditBudget.untilAvailable().toSeconds() + "s");
+                return false;
+            }
+
+            // Entries go straight from the decoder into the builder; the response is never materialized.
+            webService.streamListings(reservation.getListings(), status -> onStatus(status, credits))
+                    .doOnNext(builder::add)
+                    .blockLast();
+            if (builder.size() == 0) {
+                logger.warning("Background refresh returned no data; keeping snapshot v" + snapshotStore.current().getVersion());
+                return false;
+            }
+
+            CryptoSnapshot refreshed = snapshotStore.publish(builder);
+            logger.info("Background refresh published snapshot v" + refreshed.getVersion() + " with " + refreshed.size() + " cryptocurrencies");
+            return true;
+        } catch (Exception e) {
+            logger.severe("Exception in background listings refresh: " + e.getMessage());
+            return false;
+        } finally {
+            // A refresh that received nothing was not charged and hands its reservation back; one whose pages
+            // reported no credit_count keeps the estimate.
+            if (reservation != null) {
+                creditBudget.settle(reservation,
+                        credits.get() == null && builder.size() == 0 ? Integer.valueOf(0) : credits.get());
+            }
+            snapshotStore.endRefresh();
+        }
+    }
+
+    private void onStatus(Status status, AtomicReference<Integer> credits) {
+        if (status.getCreditCount() != null) {
+            credits.accumulateAndGet(status.getCreditCount(), (sum, count) -> sum == null ? count : sum + count);
+        }
+        if (status.getErrorCode() != null && status.getErrorCode() != 0) {
+            logger.warning("Listings page reported error " + status.getErrorCode() + ": " + status.getErrorMessage());
+        }
+    }
+
+    private void runAndReschedule() {
+        try {
+            refreshNow();
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::runAndReschedule, nextDelay().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Stretch the interval so repeated refreshes fit the daily credit budget, and sleep through an exhausted window.
+    private Duration nextDelay() {
+        Duration delay = interval;
+        Duration sustainable = creditBudget.sustainableInterval(limit, webService.convertBatches().size());
+        if (sustainable.compareTo(delay) > 0) {
+            delay = sustainable;
+        }
+        Duration untilAvailable = creditBudget.untilAvailable();
+        if (untilAvailable.compareTo(delay) > 0) {
+            delay = untilAvailable;
+        }
+
+        long jitterMillis = jitter.toMillis();
+        return jitterMillis > 0
+                ? delay.plusMillis(ThreadLocalRandom.current().nextLong(jitterMillis + 1))
+                : delay;
+    }
+}
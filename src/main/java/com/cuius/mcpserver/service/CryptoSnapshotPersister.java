@@ -0,0 +1,106 @@
+package com.cuius.mcpserver.service;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.SnapshotFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Warm start for short-lived stdio processes: the last published snapshot is saved to disk and
+ * restored at startup, so the cache answers immediately while a refresh brings it up to date.
+ * Saving happens on a background thread; when several snapshots are published back to back only
+ * the latest one is written.
+ */
+@Component
+public class CryptoSnapshotPersister {
+    private static final Logger logger = Logger.getLogger(CryptoSnapshotPersister.class.getName());
+
+    private final CryptoSnapshotStore snapshotStore;
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private ExecutorService writer;
+
+    @Value("${coinmarketcap.snapshot-file.enabled:true}")
+    private boolean enabled;
+    @Value("${coinmarketcap.snapshot-file.path:${java.io.tmpdir}/coinmarketcap-mcp/listings.snapshot}")
+    private Path path;
+
+    public CryptoSnapshotPersister(CryptoSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        load();
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cmc-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotStore.addPublishListener(snapshot -> scheduleSave());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    public boolean load() {
+        long start = System.nanoTime();
+        try {
+            CryptoSnapshot restored = SnapshotFile.read(path);
+            if (!snapshotStore.restore(restored)) {
+                logger.info("Skipping snapshot file " + path + "; a fresher snapshot is already published");
+                return false;
+            }
+            logger.info("Restored snapshot v" + restored.getVersion() + " with " + restored.size() + " cryptocurrencies " +
+                    "(age " + restored.getAge().toSeconds() + "s) from " + path + " in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+            return true;
+        } catch (NoSuchFileException e) {
+            logger.info("No snapshot file at " + path + "; starting with an empty cache");
+            return false;
+        } catch (IOException e) {
+            logger.warning("Ignoring unreadable snapshot file " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean save(CryptoSnapshot snapshot) {
+        if (snapshot.isEmpty()) {
+            return false;
+        }
+        try {
+            SnapshotFile.write(snapshot, path);
+            logger.fine("Saved snapshot v" + snapshot.getVersion() + " to " + path);
+            return true;
+        } catch (IOException e) {
+            logger.warning("Failed to save snapshot to " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void scheduleSave() {
+        if (!writer.isShutdown() && savePending.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                savePending.set(false);
+                save(snapshotStore.current());
+            });
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.cuius.mcpserver.service;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Appends a {@code double} to a {@link StringBuilder} exactly as {@code String.format("%.2f", value)}
+ * (or {@code %.Nf}) would, without parsing a format string or allocating a {@link java.util.Formatter}.
+ *
+ * <p>The value is scaled to units of the last decimal and rounded in double arithmetic. That rounding
+ * can only disagree with {@code Formatter} (which rounds its decimal digits half-up) when the scaled
+ * value sits within a few ulps of a half unit, so those values, scaled magnitudes of 1e15 or more,
+ * non-finite values and locales without ASCII digits or a {@code '.'} separator fall back to
+ * {@code String.format}.
+ */
+public final class FixedPointFormat {
+    private static final double MAX_SCALED = 1e15;
+    private static final int TIE_ULPS = 4;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+            10_000_000L, 100_000_000L, 1_000_000_000L};
+    public static final int MAX_DECIMALS = POWERS_OF_TEN.length - 1;
+
+    private static volatile LocaleCheck localeCheck = new LocaleCheck(null, false);
+
+    private FixedPointFormat() {
+    }
+
+    public static StringBuilder appendTwoDecimals(StringBuilder sb, double value) {
+        return appendFixed(sb, value, 2);
+    }
+
+    /**
+     * Appends {@code value} as {@code String.format("%." + decimals + "f", value)} would, for
+     * {@code decimals} between 1 and {@link #MAX_DECIMALS}.
+     */
+    public static StringBuilder appendFixed(StringBuilder sb, double value, int decimals) {
+        if (decimals < 1 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Unsupported number of decimals " + decimals);
+        }
+        long unit = POWERS_OF_TEN[decimals];
+        double scaled = Math.abs(value) * unit;
+        if (!(scaled < MAX_SCALED) || !isPlainLocale()) {
+            return sb.append(String.format("%." + decimals + "f", value));
+        }
+
+        double whole = Math.floor(scaled);
+        double fraction = scaled - whole;
+        if (Math.abs(fraction - 0.5) <= TIE_ULPS * Math.ulp(scaled)) {
+            return sb.append(String.format("%." + decimals + "f", value));
+        }
+
+        long units = (long) whole + (fraction > 0.5 ? 1 : 0);
+        // Formatter prints a sign for -0.0 and for negatives that round to zero.
+        if (Double.compare(value, 0.0) < 0) {
+            sb.append('-');
+        }
+        long remainder = units % unit;
+        sb.append(units / unit).append('.');
+        for (long digit = unit / 10; digit > 1 && remainder < digit; digit /= 10) {
+            sb.append('0');
+        }
+        return sb.append(remainder);
+    }
+
+    private static boolean isPlainLocale() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleCheck check = localeCheck;
+        if (!locale.equals(check.locale)) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            check = new LocaleCheck(locale, symbols.getZeroDigit() == '0' && symbols.getDecimalSeparator() == '.');
+            localeCheck = check;
+        }
+        return check.plain;
+    }
+
+    private static final class LocaleCheck {
+        private final Locale locale;
+        private final boolean plain;
+
+        private LocaleCheck(Locale locale, boolean plain) {
+            this.locale = locale;
+            this.plain = plain;
+        }
+    }
+}
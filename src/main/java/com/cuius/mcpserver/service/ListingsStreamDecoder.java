@@ -0,0 +1,166 @@
+package com.cuius.mcpserver.service;
+
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Status;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Decodes a listings response body incrementally with Jackson's non-blocking parser. Each element
+ * of the top-level {@code data} array is emitted as soon as its closing brace arrives, so only one
+ * entry is buffered at a time instead of the whole payload and its object graph.
+ */
+public class ListingsStreamDecoder {
+    private final ObjectMapper objectMapper;
+
+    public ListingsStreamDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Flux<CryptoCurrency> decode(Flux<DataBuffer> body, Consumer<Status> statusListener) {
+        return Flux.defer(() -> {
+            State state = new State(statusListener);
+            return body.concatMapIterable(state::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(state.finish())))
+                    .doFinally(signal -> state.close());
+        });
+    }
+
+    private final class State {
+        private final Consumer<Status> statusListener;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private int depth;
+        private String rootField;
+        private boolean inData;
+        private TokenBuffer capture;
+        private int captureDepth;
+        private Class<?> captureType;
+
+        private State(Consumer<Status> statusListener) {
+            this.statusListener = statusListener;
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        private List<CryptoCurrency> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        private List<CryptoCurrency> finish() {
+            feeder.endOfInput();
+            try {
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<CryptoCurrency> drain() throws IOException {
+            List<CryptoCurrency> decoded = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (capture != null) {
+                    capture(token, decoded);
+                } else {
+                    navigate(token);
+                }
+            }
+            return decoded;
+        }
+
+        private void navigate(JsonToken token) throws IOException {
+            switch (token) {
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        rootField = parser.currentName();
+                    }
+                }
+                case START_OBJECT -> {
+                    if (depth == 1 && "status".equals(rootField)) {
+                        startCapture(Status.class);
+                    } else if (depth == 2 && inData) {
+                        startCapture(CryptoCurrency.class);
+                    } else {
+                        depth++;
+                    }
+                }
+                case START_ARRAY -> {
+                    inData |= depth == 1 && "data".equals(rootField);
+                    depth++;
+                }
+                case END_ARRAY -> {
+                    depth--;
+                    inData &= depth != 1;
+                }
+                case END_OBJECT -> depth--;
+                default -> {
+                }
+            }
+        }
+
+        private void startCapture(Class<?> type) throws IOException {
+            capture = new TokenBuffer(parser);
+            capture.copyCurrentEvent(parser);
+            captureDepth = 1;
+            captureType = type;
+        }
+
+        private void capture(JsonToken token, List<CryptoCurrency> decoded) throws IOException {
+            capture.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                captureDepth++;
+            } else if (token.isStructEnd()) {
+                captureDepth--;
+            }
+            if (captureDepth > 0) {
+                return;
+            }
+
+            try (JsonParser captured = capture.asParser(objectMapper)) {
+                if (captureType == Status.class) {
+                    if (statusListener != null) {
+                        statusListener.accept(objectMapper.readValue(captured, Status.class));
+                    }
+                } else {
+                    decoded.add(objectMapper.readValue(captured, CryptoCurrency.class));
+                }
+            } finally {
+                capture = null;
+            }
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.cuius.mcpserver.service;
+
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of rendered tool responses. Read tools are pure functions of their arguments and
+ * the snapshot they read, so entries are keyed by (tool, normalized arguments, snapshot version) and
+ * the whole cache is dropped whenever a new snapshot is published.
+ */
+@Component
+public class ResponseCache {
+    private final int maxEntries;
+    private final CoinMarketCapMetrics metrics;
+    private final Map<Key, String> entries;
+    private long minVersion;
+
+    public ResponseCache(@Value("${coinmarketcap.response-cache.max-entries:256}") int maxEntries,
+                         CoinMarketCapMetrics metrics, CryptoSnapshotStore snapshotStore) {
+        this.maxEntries = maxEntries;
+        this.metrics = metrics;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+        snapshotStore.addPublishListener(snapshot -> invalidate(snapshot.getVersion()));
+    }
+
+    /**
+     * Returns the cached response for {@code tool} and {@code args} rendered from snapshot
+     * {@code version}, or renders, caches and returns it. Rendering happens outside the lock, so
+     * concurrent misses for the same key may each render once.
+     */
+    public String get(String tool, String args, long version, Supplier<String> render) {
+        if (maxEntries <= 0) {
+            return render.get();
+        }
+
+        Key key = new Key(tool, args, version);
+        String cached;
+        synchronized (this) {
+            cached = entries.get(key);
+        }
+        metrics.recordResponseCache(tool, cached != null);
+        if (cached != null) {
+            return cached;
+        }
+
+        String rendered = render.get();
+        synchronized (this) {
+            // A render that started before the last publish must not outlive the invalidation.
+            if (version >= minVersion) {
+                entries.put(key, rendered);
+            }
+        }
+        return rendered;
+    }
+
+    public synchronized void invalidate(long currentVersion) {
+        minVersion = Math.max(minVersion, currentVersion);
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Key {
+        private final String tool;
+        private final String args;
+        private final long version;
+
+        private Key(String tool, String args, long version) {
+            this.tool = tool;
+            this.args = args;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && version == other.version && tool.equals(other.tool)
+                    && Objects.equals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tool, args, version);
+        }
+    }
+}
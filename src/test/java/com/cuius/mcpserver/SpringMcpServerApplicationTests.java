@@ -3,7 +3,8 @@ package com.cuius.mcpserver;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// The snapshot file is on by default; keep the context from reading or writing a shared one.
+@SpringBootTest(properties = "coinmarketcap.snapshot-file.enabled=false")
 class SpringMcpServerApplicationTests {
 
     @Test
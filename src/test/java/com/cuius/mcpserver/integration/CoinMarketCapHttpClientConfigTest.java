@@ -0,0 +1,153 @@
+package com.cuius.mcpserver.integration;
+
+import com.cuius.mcpserver.config.CoinMarketCapHttpClientConfig;
+import com.cuius.mcpserver.dto.CoinMarketCapResponse;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
+import com.cuius.mcpserver.service.CoinMarketCapWebService;
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import mockwebserver3.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("integration")
+@DisplayName("CoinMarketCapHttpClientConfig Integration Tests")
+class CoinMarketCapHttpClientConfigTest {
+
+    private static final String TEST_BASE_URL = "http://localhost:9188";
+    private static final String LISTINGS_JSON = """
+            {
+                "status": { "error_code": 0, "credit_count": 1, "elapsed": 10 },
+                "data": [ { "id": 1, "name": "Bitcoin", "symbol": "BTC", "cmc_rank": 1 } ]
+            }
+            """;
+
+    private MockWebServer mockWebServer;
+    private ConnectionProvider connectionProvider;
+    private CoinMarketCapWebService webService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start(9188);
+
+        CoinMarketCapHttpClientConfig config = new CoinMarketCapHttpClientConfig();
+        ReflectionTestUtils.setField(config, "baseUrl", TEST_BASE_URL);
+        ReflectionTestUtils.setField(config, "responseTimeout", Duration.ofMillis(300));
+        connectionProvider = config.coinMarketCapConnectionProvider();
+
+        WebClient webClient = config.coinMarketCapWebClient(WebClient.builder(), connectionProvider);
+        webService = new CoinMarketCapWebService(webClient, CoinMarketCapMetrics.noop());
+        ReflectionTestUtils.setField(webService, "apiKey", "my-test-api-key");
+        ReflectionTestUtils.setField(webService, "LISTINGS_ENDPOINT", "/v1/cryptocurrency/listings/latest");
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        mockWebServer.close();
+    }
+
+    @Test
+    @DisplayName("Should request and decode gzip-compressed listings")
+    void testGzipResponse() throws Exception {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse.Builder()
+                .code(200)
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Content-Encoding", "gzip")
+                .body(new Buffer().write(gzip(LISTINGS_JSON)))
+                .build());
+
+        // Act
+        CoinMarketCapResponse response = webService.getCoinMarketCapWebResponse(1);
+
+        // Assert
+        assertThat(response).isNotNull();
+        assertThat(response.getData()).extracting("symbol").containsExactly("BTC");
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getHeaders().get("Accept-Encoding")).contains("gzip");
+    }
+
+    @Test
+    @DisplayName("Should reuse the pooled connection across refreshes")
+    void testConnectionReuse() throws Exception {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            mockWebServer.enqueue(new MockResponse.Builder()
+                    .code(200)
+                    .addHeader("Content-Type", "application/json")
+                    .body(LISTINGS_JSON)
+                    .build());
+        }
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertThat(webService.getCoinMarketCapWebResponse(1)).isNotNull();
+        }
+
+        // Assert
+        assertThat(mockWebServer.takeRequest().getConnectionIndex()).isZero();
+        assertThat(mockWebServer.takeRequest().getConnectionIndex()).isZero();
+        assertThat(mockWebServer.takeRequest().getConnectionIndex()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should give up on a response slower than the response timeout")
+    void testResponseTimeout() {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse.Builder()
+                .code(200)
+                .addHeader("Content-Type", "application/json")
+                .body(LISTINGS_JSON)
+                .headersDelay(2, TimeUnit.SECONDS)
+                .build());
+
+        // Act
+        long start = System.nanoTime();
+        CoinMarketCapResponse response = webService.getCoinMarketCapWebResponse(1);
+
+        // Assert
+        assertThat(response).isNull();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Should leave the shared WebClient.Builder without the CoinMarketCap profile")
+    void testSharedBuilderUntouched() throws Exception {
+        // Arrange
+        CoinMarketCapHttpClientConfig config = new CoinMarketCapHttpClientConfig();
+        ReflectionTestUtils.setField(config, "baseUrl", TEST_BASE_URL);
+        WebClient.Builder sharedBuilder = WebClient.builder();
+        config.coinMarketCapWebClient(sharedBuilder, connectionProvider);
+        mockWebServer.enqueue(new MockResponse.Builder().code(200).body("ok").build());
+
+        // Act
+        String body = sharedBuilder.build().get().uri(TEST_BASE_URL + "/other").retrieve()
+                .bodyToMono(String.class).block();
+
+        // Assert
+        assertThat(body).isEqualTo("ok");
+        assertThat(mockWebServer.takeRequest().getHeaders().get("Accept-Encoding")).isNull();
+    }
+
+    private static byte[] gzip(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
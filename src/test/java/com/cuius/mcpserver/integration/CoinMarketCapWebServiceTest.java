@@ -1,16 +1,40 @@
 package com.cuius.mcpserver.integration;
 
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.QuoteHistory;
 import com.cuius.mcpserver.dto.CoinMarketCapResponse;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Status;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
+import com.cuius.mcpserver.service.CoinMarketCapAsyncToolService;
+import com.cuius.mcpserver.service.CoinMarketCapToolService;
 import com.cuius.mcpserver.service.CoinMarketCapWebService;
+import com.cuius.mcpserver.service.CreditBudget;
+import com.cuius.mcpserver.service.ResponseCache;
+import mockwebserver3.Dispatcher;
 import mockwebserver3.MockResponse;
 import mockwebserver3.MockWebServer;
 import mockwebserver3.RecordedRequest;
 import org.junit.jupiter.api.*;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,8 +51,7 @@ class CoinMarketCapWebServiceTest {
         mockWebServer = new MockWebServer();
         mockWebServer.start(9187);
 
-        WebClient.Builder webClientBuilder = WebClient.builder();
-        webService = new CoinMarketCapWebService(webClientBuilder, TEST_BASE_URL);
+        webService = new CoinMarketCapWebService(WebClient.builder().baseUrl(TEST_BASE_URL).build(), CoinMarketCapMetrics.noop());
 
         // Set private fields using reflection
         ReflectionTestUtils.setField(webService, "apiKey", TEST_API_KEY);
@@ -296,6 +319,267 @@ class CoinMarketCapWebServiceTest {
         assertThat(response.getData().get(1).getQuote().get("USD").getPrice()).isEqualTo(3000.0);
     }
 
+    @Test
+    @DisplayName("Should coalesce concurrent fetches with compatible limits into one request")
+    void testFetchListings_CoalescesConcurrentCalls() {
+        // Arrange
+        String jsonResponse = """
+                {
+                    "status": {
+                        "timestamp": "2024-01-15T10:30:00.000Z",
+                        "error_code": 0,
+                        "credit_count": 1
+                    },
+                    "data": [
+                        { "id": 1, "name": "Bitcoin", "symbol": "BTC", "cmc_rank": 1 },
+                        { "id": 2, "name": "Ethereum", "symbol": "ETH", "cmc_rank": 2 }
+                    ]
+                }
+                """;
+
+        mockWebServer.enqueue(new MockResponse.Builder()
+                .code(200)
+                .body(jsonResponse)
+                .addHeader("Content-Type", "application/json")
+                .headersDelay(300, TimeUnit.MILLISECONDS)
+                .build());
+
+        // Act
+        Mono<CoinMarketCapResponse> first = webService.fetchListings(10);
+        Mono<CoinMarketCapResponse> second = webService.fetchListings(1);
+        List<CoinMarketCapResponse> responses = Mono.zip(first, second, List::of).block();
+
+        // Assert
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        assertThat(webService.getCoalescedFetchCount()).isEqualTo(1);
+        assertThat(responses).isNotNull();
+        assertThat(responses.get(0).getData()).hasSize(2);
+        assertThat(responses.get(1).getData()).hasSize(1);
+        assertThat(responses.get(1).getData().getFirst().getSymbol()).isEqualTo("BTC");
+        assertThat(responses.get(0).getStatus().getCreditCount()).isEqualTo(1);
+        assertThat(responses.get(1).getStatus().getCreditCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should settle a coalesced upstream charge once across concurrent callers")
+    void testFetchListings_CoalescedCallersSettleOnce() {
+        // Arrange
+        String jsonResponse = """
+                {
+                    "status": { "error_code": 0, "credit_count": 1 },
+                    "data": [
+                        { "id": 1, "name": "Bitcoin", "symbol": "BTC", "cmc_rank": 1 },
+                        { "id": 2, "name": "Ethereum", "symbol": "ETH", "cmc_rank": 2 }
+                    ]
+                }
+                """;
+        mockWebServer.enqueue(new MockResponse.Builder()
+                .code(200)
+                .body(jsonResponse)
+                .addHeader("Content-Type", "application/json")
+                .headersDelay(300, TimeUnit.MILLISECONDS)
+                .build());
+        CreditBudget budget = new CreditBudget(0, 100);
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        CoinMarketCapToolService toolService = new CoinMarketCapToolService(webService, store,
+                CoinMarketCapMetrics.noop(), budget, QuoteHistory.disabled(), new ResponseCache(0, CoinMarketCapMetrics.noop(), store));
+        CoinMarketCapAsyncToolService asyncToolService = new CoinMarketCapAsyncToolService(webService, toolService);
+
+        // Act
+        List<String> results = Mono.zip(asyncToolService.getLatestCryptoListings(10),
+                asyncToolService.getLatestCryptoListings(5), List::of).block();
+
+        // Assert
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        assertThat(results).allMatch(result -> result.startsWith("Successfully fetched 2 cryptocurrencies"));
+        assertThat(budget.usedToday()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should stream the entries of a fetch already in flight instead of requesting them again")
+    void testStreamListings_JoinsInFlightFetch() {
+        // Arrange
+        String jsonResponse = """
+                {
+                    "status": { "error_code": 0, "credit_count": 1 },
+                    "data": [
+                        { "id": 1, "name": "Bitcoin", "symbol": "BTC", "cmc_rank": 1 },
+                        { "id": 2, "name": "Ethereum", "symbol": "ETH", "cmc_rank": 2 }
+                    ]
+                }
+                """;
+        mockWebServer.enqueue(new MockResponse.Builder()
+                .code(200)
+                .body(jsonResponse)
+                .addHeader("Content-Type", "application/json")
+                .headersDelay(300, TimeUnit.MILLISECONDS)
+                .build());
+        List<Status> statuses = new ArrayList<>();
+
+        // Act
+        Mono<CoinMarketCapResponse> fetch = webService.fetchListings(10);
+        Mono<List<CryptoCurrency>> stream = webService.streamListings(1, statuses::add).collectList();
+        Tuple2<CoinMarketCapResponse, List<CryptoCurrency>> results = Mono.zip(fetch, stream).block();
+
+        // Assert
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        assertThat(webService.getCoalescedFetchCount()).isEqualTo(1);
+        assertThat(results).isNotNull();
+        assertThat(results.getT1().getStatus().getCreditCount()).isEqualTo(1);
+        assertThat(results.getT2()).extracting(CryptoCurrency::getSymbol).containsExactly("BTC");
+        assertThat(statuses).extracting(Status::getCreditCount).containsExactly(0);
+    }
+
+    @Test
+    @DisplayName("Should issue a new request when the in-flight fetch is too small")
+    void testFetchListings_DoesNotCoalesceLargerLimit() {
+        // Arrange
+        String jsonResponse = """
+                {
+                    "status": { "error_code": 0 },
+                    "data": []
+                }
+                """;
+        for (int i = 0; i < 2; i++) {
+            mockWebServer.enqueue(new MockResponse.Builder()
+                    .code(200)
+                    .body(jsonResponse)
+                    .addHeader("Content-Type", "application/json")
+                    .headersDelay(200, TimeUnit.MILLISECONDS)
+                    .build());
+        }
+
+        // Act
+        Mono<CoinMarketCapResponse> small = webService.fetchListings(5);
+        Mono<CoinMarketCapResponse> large = webService.fetchListings(50);
+        Mono.zip(small, large).block();
+
+        // Assert
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+        assertThat(webService.getCoalescedFetchCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fetch large listings as concurrent pages and retry a failed page")
+    void testGetCoinMarketCapWebResponse_Paginated() {
+        // Arrange
+        ReflectionTestUtils.setField(webService, "pageSize", 2);
+        ReflectionTestUtils.setField(webService, "pageRetryBackoff", Duration.ofMillis(10));
+        AtomicInteger failuresLeft = new AtomicInteger(1);
+        Pattern paging = Pattern.compile("start=(\\d+)&limit=(\\d+)");
+
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                Matcher matcher = paging.matcher(request.getRequestLine());
+                if (!matcher.find()) {
+                    return new MockResponse.Builder().code(400).build();
+                }
+                int start = Integer.parseInt(matcher.group(1));
+                int limit = Integer.parseInt(matcher.group(2));
+                if (start == 3 && failuresLeft.getAndDecrement() > 0) {
+                    return new MockResponse.Builder().code(503).body("Service Unavailable").build();
+                }
+                String data = IntStream.range(start, start + limit)
+                        .mapToObj(rank -> "{ \"id\": " + rank + ", \"name\": \"Coin " + rank +
+                                "\", \"symbol\": \"C" + rank + "\", \"cmc_rank\": " + rank + " }")
+                        .collect(Collectors.joining(","));
+                return new MockResponse.Builder()
+                        .code(200)
+                        .body("{ \"status\": { \"error_code\": 0, \"credit_count\": 1 }, \"data\": [" + data + "] }")
+                        .addHeader("Content-Type", "application/json")
+                        .build();
+            }
+        });
+
+        // Act
+        CoinMarketCapResponse response = webService.getCoinMarketCapWebResponse(5);
+
+        // Assert
+        assertThat(response).isNotNull();
+        assertThat(response.getData())
+                .extracting(CryptoCurrency::getCmcRank)
+                .containsExactly(1, 2, 3, 4, 5);
+        assertThat(response.getStatus().getCreditCount()).isEqualTo(3);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should fetch convert currencies in batches and merge their quotes per coin")
+    void testGetCoinMarketCapWebResponse_ConvertBatches() {
+        // Arrange
+        ReflectionTestUtils.setField(webService, "convert", new String[]{"USD", "eur", "BTC"});
+        ReflectionTestUtils.setField(webService, "convertBatchSize", 2);
+        Pattern convertParam = Pattern.compile("convert=([^& ]+)");
+        List<String> requestedBatches = new CopyOnWriteArrayList<>();
+
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                Matcher matcher = convertParam.matcher(request.getRequestLine());
+                if (!matcher.find() || request.getRequestLine().contains("start=")) {
+                    return new MockResponse.Builder().code(400).build();
+                }
+                String batch = URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8);
+                requestedBatches.add(batch);
+                String quotes = Arrays.stream(batch.split(","))
+                        .map(currency -> "\"" + currency + "\": { \"price\": " + currency.length() + " }")
+                        .collect(Collectors.joining(","));
+                String data = IntStream.rangeClosed(1, 2)
+                        .mapToObj(rank -> "{ \"id\": " + rank + ", \"name\": \"Coin " + rank + "\", \"symbol\": \"C" + rank +
+                                "\", \"cmc_rank\": " + rank + ", \"quote\": { " + quotes + " } }")
+                        .collect(Collectors.joining(","));
+                return new MockResponse.Builder()
+                        .code(200)
+                        .body("{ \"status\": { \"error_code\": 0, \"credit_count\": 1 }, \"data\": [" + data + "] }")
+                        .addHeader("Content-Type", "application/json")
+                        .build();
+            }
+        });
+
+        // Act
+        CoinMarketCapResponse response = webService.getCoinMarketCapWebResponse(2);
+
+        // Assert
+        assertThat(requestedBatches).containsExactlyInAnyOrder("USD,EUR", "BTC");
+        assertThat(response.getData()).hasSize(2);
+        assertThat(response.getData()).allSatisfy(crypto ->
+                assertThat(crypto.getQuote()).containsOnlyKeys("USD", "EUR", "BTC"));
+        assertThat(response.getStatus().getCreditCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should stream listings entry by entry and report the page status")
+    void testStreamListings_Success() throws InterruptedException {
+        // Arrange
+        String jsonResponse = """
+                {
+                    "status": { "error_code": 0, "credit_count": 1 },
+                    "data": [
+                        { "id": 1, "name": "Bitcoin", "symbol": "BTC", "cmc_rank": 1 },
+                        { "id": 2, "name": "Ethereum", "symbol": "ETH", "cmc_rank": 2 }
+                    ]
+                }
+                """;
+
+        mockWebServer.enqueue(new MockResponse.Builder()
+                .code(200)
+                .body(jsonResponse)
+                .addHeader("Content-Type", "application/json")
+                .build());
+        List<Status> statuses = new ArrayList<>();
+
+        // Act
+        List<CryptoCurrency> listings = webService.streamListings(10, statuses::add).collectList().block();
+
+        // Assert
+        assertThat(listings).extracting(CryptoCurrency::getSymbol).containsExactly("BTC", "ETH");
+        assertThat(statuses).extracting(Status::getCreditCount).containsExactly(1);
+        RecordedRequest recordedRequest = mockWebServer.takeRequest();
+        assertThat(recordedRequest.getRequestLine()).contains("limit=10");
+        assertThat(recordedRequest.getHeaders().get("X-CMC_PRO_API_KEY")).isEqualTo(TEST_API_KEY);
+    }
+
     @Test
     @DisplayName("Should handle server error (500)")
     void testGetCoinMarketCapWebResponse_ServerError() {
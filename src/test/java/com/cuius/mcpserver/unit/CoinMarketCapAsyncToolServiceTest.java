@@ -0,0 +1,209 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.QuoteHistory;
+import com.cuius.mcpserver.config.AsyncToolSpecifications;
+import com.cuius.mcpserver.dto.CoinMarketCapResponse;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
+import com.cuius.mcpserver.service.CoinMarketCapAsyncToolService;
+import com.cuius.mcpserver.service.CoinMarketCapToolService;
+import com.cuius.mcpserver.service.CoinMarketCapWebService;
+import com.cuius.mcpserver.service.CreditBudget;
+import com.cuius.mcpserver.service.ResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CoinMarketCapAsyncToolService Tests")
+class CoinMarketCapAsyncToolServiceTest {
+
+    @Mock
+    private CoinMarketCapWebService webService;
+
+    private CoinMarketCapAsyncToolService asyncToolService;
+
+    private CryptoSnapshotStore snapshotStore;
+
+    @BeforeEach
+    void setUp() {
+        snapshotStore = new CryptoSnapshotStore();
+        asyncToolService = new CoinMarketCapAsyncToolService(webService, toolService(CreditBudget.unlimited()));
+    }
+
+    @Test
+    @DisplayName("Should fetch without blocking and serve the result from the cache")
+    void testGetLatestCryptoListings_Success() {
+        // Arrange
+        when(webService.fetchListings(10)).thenReturn(Mono.just(response(crypto(1L, "Bitcoin", "BTC", 1))));
+
+        // Act
+        String result = asyncToolService.getLatestCryptoListings(null).block();
+
+        // Assert
+        assertThat(result).isEqualTo("Successfully fetched 1 cryptocurrencies. Total in cache: 1");
+        assertThat(asyncToolService.getCryptoBySymbol("btc", null).block()).contains("=== Bitcoin (BTC) ===");
+        verify(webService, never()).getCoinMarketCapWebResponse(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should build and publish the snapshot off the thread that delivered the response")
+    void testGetLatestCryptoListings_PublishesOffEventLoop() {
+        // Arrange
+        AtomicReference<String> publishThread = new AtomicReference<>();
+        snapshotStore.addPublishListener(snapshot -> publishThread.set(Thread.currentThread().getName()));
+        when(webService.fetchListings(10)).thenReturn(Mono.just(response(crypto(1L, "Bitcoin", "BTC", 1))));
+
+        // Act
+        asyncToolService.getLatestCryptoListings(null).block();
+
+        // Assert
+        assertThat(publishThread.get()).startsWith("boundedElastic");
+    }
+
+    @Test
+    @DisplayName("Should report a failed fetch when the upstream returns nothing")
+    void testGetLatestCryptoListings_Empty() {
+        // Arrange
+        when(webService.fetchListings(5)).thenReturn(Mono.empty());
+
+        // Act
+        String result = asyncToolService.getLatestCryptoListings(5).block();
+
+        // Assert
+        assertThat(result).isEqualTo("Failed to fetch cryptocurrency data. Please check your configuration.");
+        assertThat(asyncToolService.getCachedCryptoCount().block()).isEqualTo("Currently caching 0 cryptocurrencies");
+    }
+
+    @Test
+    @DisplayName("Should reserve credits only once the fetch is subscribed")
+    void testGetLatestCryptoListings_ReservesOnSubscribe() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(0, 10);
+        asyncToolService = new CoinMarketCapAsyncToolService(webService, toolService(budget));
+        when(webService.fetchListings(100)).thenReturn(Mono.just(response(crypto(1L, "Bitcoin", "BTC", 1))));
+
+        // Act
+        Mono<String> fetch = asyncToolService.getLatestCryptoListings(100);
+        int reservedBeforeSubscribe = budget.usedToday();
+        fetch.block();
+
+        // Assert
+        assertThat(reservedBeforeSubscribe).isZero();
+        assertThat(budget.usedToday()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should hand the reserved credits back when the upstream returns nothing")
+    void testGetLatestCryptoListings_ReleasesCreditsOnEmpty() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(0, 10);
+        asyncToolService = new CoinMarketCapAsyncToolService(webService, toolService(budget));
+        when(webService.fetchListings(100)).thenReturn(Mono.empty());
+        int usedBefore = budget.usedToday();
+
+        // Act
+        String result = asyncToolService.getLatestCryptoListings(100).block();
+
+        // Assert
+        assertThat(result).isEqualTo("Failed to fetch cryptocurrency data. Please check your configuration.");
+        assertThat(budget.usedToday()).isEqualTo(usedBefore);
+    }
+
+    @Test
+    @DisplayName("Should hand the reserved credits back when the fetch fails or is cancelled")
+    void testGetLatestCryptoListings_ReleasesCreditsOnErrorAndCancel() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(0, 10);
+        asyncToolService = new CoinMarketCapAsyncToolService(webService, toolService(budget));
+        when(webService.fetchListings(100))
+                .thenReturn(Mono.error(new RuntimeException("API Connection Failed")))
+                .thenReturn(Mono.never());
+
+        // Act
+        String failed = asyncToolService.getLatestCryptoListings(100).block();
+        int usedAfterError = budget.usedToday();
+        Disposable pending = asyncToolService.getLatestCryptoListings(100).subscribe();
+        int usedWhilePending = budget.usedToday();
+        pending.dispose();
+
+        // Assert
+        assertThat(failed).isEqualTo("Error: API Connection Failed");
+        assertThat(usedAfterError).isZero();
+        assertThat(usedWhilePending).isEqualTo(1);
+        assertThat(budget.usedToday()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should expose every tool as an async specification with JSON-encoded results")
+    void testAsyncToolSpecifications() {
+        // Arrange
+        when(webService.fetchListings(3)).thenReturn(Mono.just(response(crypto(1L, "Bitcoin", "BTC", 1))));
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        List<AsyncToolSpecification> specifications = AsyncToolSpecifications.from(asyncToolService, objectMapper, registry);
+        AsyncToolSpecification fetch = specification(specifications, "getLatestCryptoListings");
+        McpSchema.CallToolResult fetched = fetch.call().apply(null, Map.of("limit", 3)).block();
+        McpSchema.CallToolResult top = specification(specifications, "getTopCryptos").call().apply(null, Map.of()).block();
+
+        // Assert
+        assertThat(specifications).extracting(spec -> spec.tool().name()).containsExactlyInAnyOrder(
+                "getLatestCryptoListings", "getCachedCryptoCount", "getCacheStatus",
+                "getCryptoBySymbol", "getTopCryptos", "searchCryptoByName", "queryCryptos", "getTopMovers", "getMarketOverview", "getCryptosByTag", "getPriceHistory");
+        assertThat(fetch.tool().inputSchema().properties()).containsKey("limit");
+        assertThat(fetched.isError()).isFalse();
+        assertThat(((McpSchema.TextContent) fetched.content().getFirst()).text())
+                .isEqualTo("\"Successfully fetched 1 cryptocurrencies. Total in cache: 1\"");
+        assertThat(((McpSchema.TextContent) top.content().getFirst()).text()).contains("#1 Bitcoin (BTC)");
+        assertThat(registry.get("mcp.tool.calls").tag("tool", "getLatestCryptoListings").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private CoinMarketCapToolService toolService(CreditBudget budget) {
+        CoinMarketCapToolService toolService = new CoinMarketCapToolService(webService, snapshotStore, CoinMarketCapMetrics.noop(), budget,
+                QuoteHistory.disabled(), new ResponseCache(0, CoinMarketCapMetrics.noop(), snapshotStore));
+        ReflectionTestUtils.setField(toolService, "LISTINGS_DEFAULT_LIMIT", 10);
+        return toolService;
+    }
+
+    private static AsyncToolSpecification specification(List<AsyncToolSpecification> specifications, String name) {
+        return specifications.stream().filter(spec -> spec.tool().name().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static CoinMarketCapResponse response(CryptoCurrency... cryptos) {
+        CoinMarketCapResponse response = new CoinMarketCapResponse();
+        response.setData(List.of(cryptos));
+        return response;
+    }
+
+    private static CryptoCurrency crypto(Long id, String name, String symbol, Integer rank) {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(name);
+        crypto.setSymbol(symbol);
+        crypto.setCmcRank(rank);
+        return crypto;
+    }
+}
@@ -0,0 +1,156 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.QuoteHistory;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Status;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
+import com.cuius.mcpserver.metrics.CryptoCacheMetrics;
+import com.cuius.mcpserver.service.CoinMarketCapToolService;
+import com.cuius.mcpserver.service.CoinMarketCapWebService;
+import com.cuius.mcpserver.service.CreditBudget;
+import com.cuius.mcpserver.service.ResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Tag("unit")
+@DisplayName("CoinMarketCapMetrics Tests")
+class CoinMarketCapMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private CoinMarketCapMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new CoinMarketCapMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("Should record credits, elapsed time and API errors from the response status")
+    void testRecordStatus() {
+        // Arrange
+        Status ok = status(0, 2, 15);
+        Status rateLimited = status(1008, 1, 3);
+
+        // Act
+        metrics.recordStatus(ok);
+        metrics.recordStatus(rateLimited);
+        metrics.recordStatus(null);
+
+        // Assert
+        assertThat(registry.get("coinmarketcap.api.credits").counter().count()).isEqualTo(3.0);
+        assertThat(registry.get("coinmarketcap.api.elapsed").timer().count()).isEqualTo(2);
+        assertThat(registry.get("coinmarketcap.api.elapsed").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(18.0);
+        assertThat(registry.get("coinmarketcap.api.errors").tag("code", "1008").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should expose the number of coalesced fetches")
+    void testCoalescedFetchCounter() {
+        // Arrange
+        CoinMarketCapWebService webService = new CoinMarketCapWebService(WebClient.builder().baseUrl("http://localhost").build(), metrics);
+
+        // Act & Assert
+        assertThat(registry.get("coinmarketcap.fetch.coalesced").functionCounter().count()).isZero();
+
+        ((AtomicLong) ReflectionTestUtils.getField(webService, "coalescedFetches")).addAndGet(2);
+
+        assertThat(registry.get("coinmarketcap.fetch.coalesced").functionCounter().count()).isEqualTo(2.0);
+        assertThat(webService.getCoalescedFetchCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should count cache hits and misses for the lookup tools")
+    void testLookupCounters() {
+        // Arrange
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        store.publish(List.of(crypto(1L, "Bitcoin", "BTC", 1)));
+        CoinMarketCapToolService toolService = new CoinMarketCapToolService(mock(CoinMarketCapWebService.class), store, metrics,
+                CreditBudget.unlimited(), QuoteHistory.disabled(), new ResponseCache(0, metrics, store));
+        ReflectionTestUtils.setField(toolService, "LISTINGS_DEFAULT_LIMIT", 10);
+
+        // Act
+        toolService.getCryptoBySymbol("BTC", null);
+        toolService.getCryptoBySymbol("XYZ", null);
+        toolService.getCryptoBySymbol("xyz", null);
+        toolService.searchCryptoByName("bit", null);
+
+        // Assert
+        assertThat(lookups("getCryptoBySymbol", "hit")).isEqualTo(1.0);
+        assertThat(lookups("getCryptoBySymbol", "miss")).isEqualTo(2.0);
+        assertThat(lookups("searchCryptoByName", "hit")).isEqualTo(1.0);
+        assertThat(lookups("searchCryptoByName", "miss")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should register the response cache counters once per tool")
+    void testResponseCacheCounters() {
+        // Act
+        metrics.recordResponseCache("getTopCryptos", true);
+        int metersAfterFirst = registry.getMeters().size();
+        metrics.recordResponseCache("getTopCryptos", true);
+        metrics.recordResponseCache("getTopCryptos", false);
+
+        // Assert
+        assertThat(registry.getMeters()).hasSize(metersAfterFirst);
+        assertThat(responseCache("getTopCryptos", "hit")).isEqualTo(2.0);
+        assertThat(responseCache("getTopCryptos", "miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should expose size, version and age of the current snapshot")
+    void testCacheGauges() {
+        // Arrange
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        new CryptoCacheMetrics(store).bindTo(registry);
+
+        // Act & Assert
+        assertThat(registry.get("coinmarketcap.cache.size").gauge().value()).isZero();
+        assertThat(registry.get("coinmarketcap.cache.age").timeGauge().value(TimeUnit.SECONDS)).isNaN();
+
+        store.publish(List.of(crypto(1L, "Bitcoin", "BTC", 1), crypto(2L, "Ethereum", "ETH", 2)));
+
+        assertThat(registry.get("coinmarketcap.cache.size").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("coinmarketcap.cache.version").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("coinmarketcap.cache.age").timeGauge().value(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(0.0);
+        assertThat(registry.get("coinmarketcap.cache.refreshing").gauge().value()).isZero();
+    }
+
+    private double lookups(String tool, String result) {
+        return registry.get("mcp.cache.lookups").tag("tool", tool).tag("result", result).counter().count();
+    }
+
+    private double responseCache(String tool, String result) {
+        return registry.get("mcp.response.cache").tag("tool", tool).tag("result", result).counter().count();
+    }
+
+    private static Status status(int errorCode, int credits, int elapsed) {
+        Status status = new Status();
+        status.setErrorCode(errorCode);
+        status.setCreditCount(credits);
+        status.setElapsed(elapsed);
+        return status;
+    }
+
+    private static CryptoCurrency crypto(Long id, String name, String symbol, Integer rank) {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(name);
+        crypto.setSymbol(symbol);
+        crypto.setCmcRank(rank);
+        return crypto;
+    }
+}
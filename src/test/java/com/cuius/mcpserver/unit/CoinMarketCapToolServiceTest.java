@@ -1,17 +1,21 @@
 package com.cuius.mcpserver.unit;
 
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.QuoteHistory;
 import com.cuius.mcpserver.dto.CoinMarketCapResponse;
 import com.cuius.mcpserver.dto.CryptoCurrency;
 import com.cuius.mcpserver.dto.Quote;
 import com.cuius.mcpserver.dto.Status;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
 import com.cuius.mcpserver.service.CoinMarketCapToolService;
 import com.cuius.mcpserver.service.CoinMarketCapWebService;
+import com.cuius.mcpserver.service.CreditBudget;
+import com.cuius.mcpserver.service.ResponseCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -31,13 +35,15 @@ class CoinMarketCapToolServiceTest {
     @Mock
     private CoinMarketCapWebService webService;
 
-    @InjectMocks
     private CoinMarketCapToolService toolService;
 
     private CoinMarketCapResponse mockResponse;
 
     @BeforeEach
     void setUp() {
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        toolService = new CoinMarketCapToolService(webService, store, CoinMarketCapMetrics.noop(), CreditBudget.unlimited(),
+                QuoteHistory.disabled(), new ResponseCache(0, CoinMarketCapMetrics.noop(), store));
         ReflectionTestUtils.setField(toolService, "LISTINGS_DEFAULT_LIMIT", 10);
 
         List<CryptoCurrency> mockCryptoList = createMockCryptocurrencies();
@@ -138,6 +144,66 @@ class CoinMarketCapToolServiceTest {
         assertThat(result).isEqualTo("Currently caching 0 cryptocurrencies");
     }
 
+    @Test
+    @DisplayName("Should report snapshot version and age in cache status")
+    void testGetCacheStatus() {
+        // Arrange
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse);
+
+        // Act
+        String emptyStatus = toolService.getCacheStatus();
+        toolService.getLatestCryptoListings(5);
+        String status = toolService.getCacheStatus();
+
+        // Assert
+        assertThat(emptyStatus).isEqualTo("Cache is empty");
+        assertThat(status).startsWith("Cache snapshot v1: 3 cryptocurrencies, age ");
+        assertThat(status).doesNotContain("refresh in progress");
+    }
+
+    @Test
+    @DisplayName("Should serve the cache with a freshness note once the credit budget is spent")
+    void testGetLatestCryptoListings_BudgetExhausted() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(0, 1);
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        toolService = new CoinMarketCapToolService(webService, store, CoinMarketCapMetrics.noop(), budget,
+                QuoteHistory.disabled(), new ResponseCache(0, CoinMarketCapMetrics.noop(), store));
+        ReflectionTestUtils.setField(toolService, "LISTINGS_DEFAULT_LIMIT", 10);
+        mockResponse.getStatus().setCreditCount(1);
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse);
+
+        // Act
+        String first = toolService.getLatestCryptoListings(500);
+        String second = toolService.getLatestCryptoListings(5);
+
+        // Assert
+        assertThat(first).contains("Successfully fetched 3 cryptocurrencies");
+        assertThat(second).startsWith("Credit budget exhausted (1 credits used today)");
+        assertThat(second).contains("Serving cached snapshot v1 with 3 cryptocurrencies, age ");
+        assertThat(toolService.getCacheStatus()).endsWith(", credits used today 1/1");
+        verify(webService, times(1)).getCoinMarketCapWebResponse(200);
+    }
+
+    @Test
+    @DisplayName("Should hand the reserved credits back when the fetch fails")
+    void testGetLatestCryptoListings_ReleasesCreditsOnFailedFetch() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(0, 10);
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        toolService = new CoinMarketCapToolService(webService, store, CoinMarketCapMetrics.noop(), budget,
+                QuoteHistory.disabled(), new ResponseCache(0, CoinMarketCapMetrics.noop(), store));
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(null);
+        int usedBefore = budget.usedToday();
+
+        // Act
+        String result = toolService.getLatestCryptoListings(100);
+
+        // Assert
+        assertThat(result).isEqualTo("Failed to fetch cryptocurrency data. Please check your configuration.");
+        assertThat(budget.usedToday()).isEqualTo(usedBefore);
+    }
+
     @Test
     @DisplayName("Should retrieve cryptocurrency by symbol successfully")
     void testGetCryptoBySymbol_Success() {
@@ -146,7 +212,7 @@ class CoinMarketCapToolServiceTest {
         toolService.getLatestCryptoListings(5);
 
         // Act
-        String result = toolService.getCryptoBySymbol("BTC");
+        String result = toolService.getCryptoBySymbol("BTC", null);
 
         // Assert
         assertThat(result).contains("Bitcoin (BTC)");
@@ -162,12 +228,32 @@ class CoinMarketCapToolServiceTest {
         toolService.getLatestCryptoListings(5);
 
         // Act
-        String result = toolService.getCryptoBySymbol("btc");
+        String result = toolService.getCryptoBySymbol("btc", null);
 
         // Assert
         assertThat(result).contains("Bitcoin (BTC)");
     }
 
+    @Test
+    @DisplayName("Should return every cryptocurrency sharing a symbol")
+    void testGetCryptoBySymbol_DuplicateSymbols() {
+        // Arrange
+        CoinMarketCapResponse duplicateResponse = createMockResponse(Arrays.asList(
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0),
+                createCryptoCurrency(4L, "Bitcoin Token", "BTC", 900, 0.01)
+        ));
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(duplicateResponse);
+        toolService.getLatestCryptoListings(5);
+
+        // Act
+        String result = toolService.getCryptoBySymbol("btc", null);
+
+        // Assert
+        assertThat(result).contains("Found 2 cryptocurrencies with symbol 'btc'");
+        assertThat(result).contains("=== Bitcoin (BTC) ===");
+        assertThat(result).contains("=== Bitcoin Token (BTC) ===");
+    }
+
     @Test
     @DisplayName("Should return not found message for non-existent symbol")
     void testGetCryptoBySymbol_NotFound() {
@@ -176,7 +262,7 @@ class CoinMarketCapToolServiceTest {
         toolService.getLatestCryptoListings(5);
 
         // Act
-        String result = toolService.getCryptoBySymbol("XYZ");
+        String result = toolService.getCryptoBySymbol("XYZ", null);
 
         // Assert
         assertThat(result).contains("Cryptocurrency with symbol 'XYZ' not found in cache");
@@ -186,11 +272,11 @@ class CoinMarketCapToolServiceTest {
     @DisplayName("Should validate symbol parameter")
     void testGetCryptoBySymbol_NullOrEmpty() {
         // Act & Assert - null symbol
-        String resultNull = toolService.getCryptoBySymbol(null);
+        String resultNull = toolService.getCryptoBySymbol(null, null);
         assertThat(resultNull).contains("Please provide a valid cryptocurrency symbol");
 
         // Act & Assert - empty symbol
-        String resultEmpty = toolService.getCryptoBySymbol("   ");
+        String resultEmpty = toolService.getCryptoBySymbol("   ", null);
         assertThat(resultEmpty).contains("Please provide a valid cryptocurrency symbol");
     }
 
@@ -202,7 +288,7 @@ class CoinMarketCapToolServiceTest {
         toolService.getLatestCryptoListings(5);
 
         // Act
-        String result = toolService.getTopCryptos(2);
+        String result = toolService.getTopCryptos(2, null);
 
         // Assert
         assertThat(result).contains("Top 2 Cryptocurrencies:");
@@ -219,7 +305,7 @@ class CoinMarketCapToolServiceTest {
         toolService.getLatestCryptoListings(5);
 
         // Act
-        String result = toolService.getTopCryptos(null);
+        String result = toolService.getTopCryptos(null, null);
 
         // Assert
         assertThat(result).contains("Top 3 Cryptocurrencies:");
@@ -229,7 +315,7 @@ class CoinMarketCapToolServiceTest {
     @DisplayName("Should handle empty cache when getting top cryptos")
     void testGetTopCryptos_EmptyCache() {
         // Act
-        String result = toolService.getTopCryptos(5);
+        String result = toolService.getTopCryptos(5, null);
 
         // Assert
         assertThat(result).contains("No cryptocurrencies in cache");
@@ -244,7 +330,7 @@ class CoinMarketCapToolServiceTest {
         toolService.getLatestCryptoListings(5);
 
         // Act
-        String result = toolService.searchCryptoByName("Bit");
+        String result = toolService.searchCryptoByName("Bit", null);
 
         // Assert
         assertThat(result).contains("Found 1 cryptocurrency(ies) matching 'Bit'");
@@ -259,7 +345,7 @@ class CoinMarketCapToolServiceTest {
         toolService.getLatestCryptoListings(5);
 
         // Act
-        String result = toolService.searchCryptoByName("ethereum");
+        String result = toolService.searchCryptoByName("ethereum", null);
 
         // Assert
         assertThat(result).contains("Ethereum (ETH)");
@@ -273,7 +359,7 @@ class CoinMarketCapToolServiceTest {
         toolService.getLatestCryptoListings(5);
 
         // Act
-        String result = toolService.searchCryptoByName("NonExistent");
+        String result = toolService.searchCryptoByName("NonExistent", null);
 
         // Assert
         assertThat(result).contains("No cryptocurrencies found matching 'NonExistent'");
@@ -283,14 +369,254 @@ class CoinMarketCapToolServiceTest {
     @DisplayName("Should validate name parameter")
     void testSearchCryptoByName_NullOrEmpty() {
         // Act & Assert - null name
-        String resultNull = toolService.searchCryptoByName(null);
+        String resultNull = toolService.searchCryptoByName(null, null);
         assertThat(resultNull).contains("Please provide a valid cryptocurrency name to search");
 
         // Act & Assert - empty name
-        String resultEmpty = toolService.searchCryptoByName("   ");
+        String resultEmpty = toolService.searchCryptoByName("   ", null);
         assertThat(resultEmpty).contains("Please provide a valid cryptocurrency name to search");
     }
 
+    @Test
+    @DisplayName("Should return the price samples recorded on each refresh")
+    void testGetPriceHistory() {
+        // Arrange
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        toolService = new CoinMarketCapToolService(webService, store, CoinMarketCapMetrics.noop(),
+                CreditBudget.unlimited(), new QuoteHistory(10, store), new ResponseCache(0, CoinMarketCapMetrics.noop(), store));
+        ReflectionTestUtils.setField(toolService, "LISTINGS_DEFAULT_LIMIT", 10);
+        CoinMarketCapResponse later = createMockResponse(createMockCryptocurrencies());
+        later.getData().get(0).getQuote().get("USD").setPrice(55000.0);
+        later.getData().get(0).getQuote().get("USD").setLastUpdated(LocalDateTime.now().plusMinutes(5));
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse, later);
+
+        // Act
+        String empty = toolService.getPriceHistory("BTC", null);
+        toolService.getLatestCryptoListings(5);
+        toolService.getLatestCryptoListings(5);
+        String result = toolService.getPriceHistory("btc", null);
+        String latestOnly = toolService.getPriceHistory("BTC", 1);
+
+        // Assert
+        assertThat(empty).isEqualTo("Cryptocurrency with symbol 'BTC' not found in cache");
+        assertThat(result).startsWith("Price history for Bitcoin (BTC), 2 sample(s):\n");
+        assertThat(result).contains(" - $50000.00 (Market Cap: $950000000000.00, 24h Volume: $1000000000.00)");
+        assertThat(result).contains(" - $55000.00 (Market Cap: $");
+        assertThat(result).endsWith("Change over period: 10.00%\n");
+        assertThat(latestOnly).contains("1 sample(s)").contains("$55000.00").doesNotContain("$50000.00");
+    }
+
+    @Test
+    @DisplayName("Should render price samples in the currency they were recorded in")
+    void testGetPriceHistory_NonUsdCurrency() {
+        // Arrange
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        toolService = new CoinMarketCapToolService(webService, store, CoinMarketCapMetrics.noop(),
+                CreditBudget.unlimited(), new QuoteHistory(10, store), new ResponseCache(0, CoinMarketCapMetrics.noop(), store));
+        CryptoCurrency bitcoin = createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 46000.0);
+        bitcoin.setQuote(Map.of("EUR", bitcoin.getQuote().get("USD")));
+        store.publish(List.of(bitcoin));
+
+        // Act
+        String result = toolService.getPriceHistory("BTC", 5);
+
+        // Assert
+        assertThat(result).contains(" - 46000.00 EUR (Market Cap: 874000000000.00 EUR, 24h Volume: 1000000000.00 EUR)");
+        assertThat(result).doesNotContain("$");
+    }
+
+    @Test
+    @DisplayName("Should explain when price history is disabled")
+    void testGetPriceHistory_Disabled() {
+        assertThat(toolService.getPriceHistory("BTC", 5)).startsWith("Price history is disabled");
+        assertThat(toolService.getPriceHistory(" ", 5)).isEqualTo("Please provide a valid cryptocurrency symbol");
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the response cache until new listings are published")
+    void testResponseCache() {
+        // Arrange
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        toolService = new CoinMarketCapToolService(webService, store, CoinMarketCapMetrics.noop(),
+                CreditBudget.unlimited(), QuoteHistory.disabled(), new ResponseCache(16, CoinMarketCapMetrics.noop(), store));
+        ReflectionTestUtils.setField(toolService, "LISTINGS_DEFAULT_LIMIT", 10);
+        CoinMarketCapResponse updated = createMockResponse(createMockCryptocurrencies());
+        updated.getData().get(0).getQuote().get("USD").setPrice(60000.0);
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse, updated);
+        toolService.getLatestCryptoListings(5);
+
+        // Act
+        String top = toolService.getTopCryptos(10, null);
+        String topAgain = toolService.getTopCryptos(3, null);
+        String bySymbol = toolService.getCryptoBySymbol("btc", null);
+        String bySymbolAgain = toolService.getCryptoBySymbol(" BTC ", null);
+        String dominance = toolService.getMarketOverview("xyz", null);
+        String dominanceUpperCase = toolService.getMarketOverview("XYZ", null);
+        toolService.getLatestCryptoListings(5);
+        String refreshed = toolService.getTopCryptos(3, null);
+
+        // Assert
+        assertThat(topAgain).isSameAs(top);
+        assertThat(bySymbolAgain).isSameAs(bySymbol);
+        assertThat(dominanceUpperCase).isSameAs(dominance).contains("Dominance: XYZ not found\n");
+        assertThat(top).contains("$50000.00");
+        assertThat(refreshed).isNotSameAs(top).contains("$60000.00");
+    }
+
+    @Test
+    @DisplayName("Should render quotes in the requested convert currency without another fetch")
+    void testCurrencyArgument() {
+        // Arrange
+        CoinMarketCapResponse response = createMockResponse(createMockCryptocurrencies());
+        for (CryptoCurrency crypto : response.getData()) {
+            Quote eurQuote = new Quote();
+            eurQuote.setPrice(crypto.getQuote().get("USD").getPrice() * 0.9);
+            eurQuote.setPercentChange24h(2.0);
+            Quote btcQuote = new Quote();
+            btcQuote.setPrice(crypto.getQuote().get("USD").getPrice() / 50000.0);
+            crypto.getQuote().put("EUR", eurQuote);
+            crypto.getQuote().put("BTC", btcQuote);
+        }
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(response);
+        toolService.getLatestCryptoListings(5);
+
+        // Act
+        String bySymbol = toolService.getCryptoBySymbol("BTC", "eur");
+        String top = toolService.getTopCryptos(3, "BTC");
+        String byName = toolService.searchCryptoByName("ether", "EUR");
+        String defaultCurrency = toolService.getTopCryptos(1, null);
+        String unknown = toolService.getTopCryptos(3, "GBP");
+
+        // Assert
+        assertThat(bySymbol).contains("Price (EUR): 45000.00 EUR").contains("24h Change: 2.00%");
+        assertThat(top).contains("#1 Bitcoin (BTC) - 1.00000000 BTC").contains("#3 Cardano (ADA) - 0.00003000 BTC");
+        assertThat(byName).contains("#2 Ethereum (ETH) - 2700.00 EUR (24h: 2.00%)");
+        assertThat(defaultCurrency).contains("#1 Bitcoin (BTC) - $50000.00 (24h: 2.50%)");
+        assertThat(unknown).startsWith("Quotes in 'GBP' are not cached; available currencies: ").contains("USD", "EUR", "BTC");
+        verify(webService, times(1)).getCoinMarketCapWebResponse(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should filter and sort cached cryptocurrencies by quote fields")
+    void testQueryCryptos() {
+        // Arrange
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse);
+        toolService.getLatestCryptoListings(5);
+
+        // Act
+        String bigCaps = toolService.queryCryptos("market_cap >= 1e9", "price", "asc", null, null);
+        String limited = toolService.queryCryptos(null, null, null, 1, null);
+        String none = toolService.queryCryptos("price>1e6", null, null, null, null);
+        String invalid = toolService.queryCryptos("cap>1", null, null, null, null);
+
+        // Assert
+        assertThat(bigCaps).isEqualTo("Found 2 cryptocurrency(ies) matching market_cap>=1000000000, sorted by price asc, showing 2:\n" +
+                "#2 Ethereum (ETH) - $3000.00 (24h: 2.50%) | market_cap: $57000000000.00\n" +
+                "#1 Bitcoin (BTC) - $50000.00 (24h: 2.50%) | market_cap: $950000000000.00\n");
+        assertThat(limited).startsWith("Found 3 cryptocurrency(ies) matching any quote, by rank, showing 1:\n#1 Bitcoin (BTC)");
+        assertThat(none).isEqualTo("No cryptocurrencies match price>1000000, by rank");
+        assertThat(invalid).startsWith("Invalid filter: unknown field 'cap'");
+    }
+
+    @Test
+    @DisplayName("Should list the biggest gainers and losers for a period")
+    void testGetTopMovers() {
+        // Arrange
+        mockResponse.getData().get(1).getQuote().get("USD").setPercentChange24h(-4.0);
+        mockResponse.getData().get(2).getQuote().get("USD").setPercentChange24h(12.0);
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse);
+        toolService.getLatestCryptoListings(5);
+
+        // Act
+        String movers = toolService.getTopMovers(null, 1, null, null);
+        String filtered = toolService.getTopMovers("24H", 1, "market_cap>=1e9", null);
+        String invalid = toolService.getTopMovers("2d", 1, null, null);
+
+        // Assert
+        assertThat(movers).isEqualTo("Top 1 gainers by 24h change:\n" +
+                "#3 Cardano (ADA) - $1.50 (24h: 12.00%)\n" +
+                "Top 1 losers by 24h change:\n" +
+                "#2 Ethereum (ETH) - $3000.00 (24h: -4.00%)\n");
+        assertThat(filtered).contains("gainers by 24h change (market_cap>=1000000000):\n#1 Bitcoin (BTC)");
+        assertThat(invalid).isEqualTo("Invalid period '2d'; expected 1h, 24h, 7d or 30d");
+    }
+
+    @Test
+    @DisplayName("Should only list coins that rose as gainers and coins that fell as losers")
+    void testGetTopMovers_CountExceedsMovers() {
+        // Arrange
+        mockResponse.getData().get(1).getQuote().get("USD").setPercentChange24h(-4.0);
+        mockResponse.getData().get(2).getQuote().get("USD").setPercentChange24h(12.0);
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse);
+        toolService.getLatestCryptoListings(5);
+
+        // Act
+        String movers = toolService.getTopMovers("24h", 10, null, null);
+        String noLosers = toolService.getTopMovers("7d", 10, null, null);
+        String none = toolService.getTopMovers("24h", 10, "price>1e6", null);
+
+        // Assert
+        assertThat(movers).isEqualTo("Top 2 gainers by 24h change:\n" +
+                "#3 Cardano (ADA) - $1.50 (24h: 12.00%)\n" +
+                "#1 Bitcoin (BTC) - $50000.00 (24h: 2.50%)\n" +
+                "Top 1 losers by 24h change:\n" +
+                "#2 Ethereum (ETH) - $3000.00 (24h: -4.00%)\n");
+        assertThat(noLosers).endsWith("No losers by 7d change\n");
+        assertThat(none).isEqualTo("No cryptocurrencies with a nonzero 24h change match price>1000000");
+    }
+
+    @Test
+    @DisplayName("Should report market totals, dominance, rank buckets and average changes")
+    void testGetMarketOverview() {
+        // Arrange
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse);
+        toolService.getLatestCryptoListings(5);
+
+        // Act
+        String overview = toolService.getMarketOverview(null, null);
+        String dominance = toolService.getMarketOverview("eth,xyz", null);
+        String unknownCurrency = toolService.getMarketOverview(null, "EUR");
+
+        // Assert
+        assertThat(overview).isEqualTo("Market overview (USD) for 3 cryptocurrencies, snapshot v1:\n" +
+                "Total Market Cap: $1007028500000.00\n" +
+                "Total 24h Volume: $3000000000.00\n" +
+                "Dominance: BTC 94.34%, ETH 5.66%, ADA 0.00%\n" +
+                "Top 10: Market Cap $1007028500000.00 (100.00% of total), 24h Volume $3000000000.00\n" +
+                "24h Change: mean 2.50%, median 2.50% (3 up, 0 down)\n" +
+                "7d Change: mean 5.00%, median 5.00% (3 up, 0 down)\n");
+        assertThat(dominance).contains("Dominance: ETH 5.66%, XYZ not found\n");
+        assertThat(unknownCurrency).startsWith("Quotes in 'EUR' are not cached");
+    }
+
+    @Test
+    @DisplayName("Should list coins matching a tag expression and the most common tags")
+    void testGetCryptosByTag() {
+        // Arrange
+        mockResponse.getData().get(0).setTags(List.of("mineable", "pow"));
+        mockResponse.getData().get(1).setTags(List.of("smart-contracts", "pos"));
+        mockResponse.getData().get(2).setTags(List.of("smart-contracts", "pos", "cardano-ecosystem"));
+        when(webService.getCoinMarketCapWebResponse(anyInt())).thenReturn(mockResponse);
+        toolService.getLatestCryptoListings(5);
+
+        // Act
+        String both = toolService.getCryptosByTag("smart-contracts and cardano-ecosystem", null, null);
+        String either = toolService.getCryptosByTag("POW or cardano-ecosystem", 1, null);
+        String none = toolService.getCryptosByTag("meme", null, null);
+        String invalid = toolService.getCryptosByTag("pos,", null, null);
+        String common = toolService.getCryptosByTag(null, 2, null);
+
+        // Assert
+        assertThat(both).isEqualTo("Found 1 cryptocurrency(ies) tagged smart-contracts AND cardano-ecosystem, showing 1:\n" +
+                "Combined Market Cap: $28500000.00 (0.00% of total), 24h Volume $1000000000.00\n" +
+                "#3 Cardano (ADA) - $1.50 (24h: 2.50%)\n");
+        assertThat(either).startsWith("Found 2 cryptocurrency(ies) tagged pow OR cardano-ecosystem, showing 1:\n")
+                .endsWith("#1 Bitcoin (BTC) - $50000.00 (24h: 2.50%)\n");
+        assertThat(none).isEqualTo("No cryptocurrencies tagged meme");
+        assertThat(invalid).startsWith("Invalid tags: empty tag");
+        assertThat(common).isEqualTo("Found 5 tag(s), showing the 2 most common:\npos (2)\nsmart-contracts (2)\n");
+    }
+
     @Test
     @DisplayName("Should clear cache when fetching new listings")
     void testGetLatestCryptoListings_ClearsPreviousCache() {
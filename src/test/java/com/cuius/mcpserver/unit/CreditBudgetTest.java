@@ -0,0 +1,161 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.service.CreditBudget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@DisplayName("CreditBudget Tests")
+class CreditBudgetTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T23:58:30Z"));
+
+    @Test
+    @DisplayName("Should estimate one credit per 200 listings, rounded up")
+    void testCreditsFor() {
+        assertThat(CreditBudget.creditsFor(1)).isEqualTo(1);
+        assertThat(CreditBudget.creditsFor(200)).isEqualTo(1);
+        assertThat(CreditBudget.creditsFor(201)).isEqualTo(2);
+        assertThat(CreditBudget.creditsFor(5000)).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Should never restrict an unlimited budget")
+    void testUnlimited() {
+        CreditBudget budget = CreditBudget.unlimited();
+
+        assertThat(budget.isLimited()).isFalse();
+        assertThat(budget.reserve(5000).getListings()).isEqualTo(5000);
+        assertThat(budget.untilAvailable()).isZero();
+        assertThat(budget.sustainableInterval(5000)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should shrink requests to what the minute budget still allows, then refuse")
+    void testReserve_MinuteBudget() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(clock, 3, 0);
+
+        // Act & Assert
+        assertThat(budget.reserve(400).getListings()).isEqualTo(400);
+        assertThat(budget.reserve(1000).getListings()).isEqualTo(200);
+        assertThat(budget.reserve(10).getListings()).isZero();
+        assertThat(budget.untilAvailable()).isEqualTo(Duration.ofSeconds(30));
+
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(budget.reserve(10).getListings()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should reserve every convert batch and shrink requests to the per-batch budget")
+    void testReserve_ConvertBatches() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(clock, 7, 0);
+
+        // Act & Assert
+        assertThat(CreditBudget.creditsFor(201, 3)).isEqualTo(6);
+        CreditBudget.Reservation reservation = budget.reserve(1000, 3);
+        assertThat(reservation.getListings()).isEqualTo(400);
+        assertThat(budget.reserve(10, 3).getListings()).isZero();
+
+        budget.settle(reservation, 5);
+        assertThat(budget.usedToday()).isEqualTo(5);
+        assertThat(budget.reserve(1000, 2).getListings()).isEqualTo(200);
+        assertThat(budget.usedToday()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should settle reservations with the credits actually charged")
+    void testSettle() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(clock, 0, 10);
+
+        // Act
+        CreditBudget.Reservation reservation = budget.reserve(1000);
+        budget.settle(reservation, 2);
+        budget.settle(budget.reserve(10), null);
+
+        // Assert
+        assertThat(reservation.getListings()).isEqualTo(1000);
+        assertThat(budget.usedToday()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reset the daily budget at UTC midnight")
+    void testDailyWindow() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(clock, 0, 2);
+        budget.reserve(400);
+
+        // Act & Assert
+        assertThat(budget.reserve(1).getListings()).isZero();
+        assertThat(budget.untilAvailable()).isEqualTo(Duration.ofSeconds(90));
+
+        clock.advance(Duration.ofSeconds(90));
+        assertThat(budget.usedToday()).isZero();
+        assertThat(budget.reserve(1).getListings()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not adjust a window the reservation was not counted in")
+    void testSettle_AfterWindowRollover() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(clock, 0, 10);
+        CreditBudget.Reservation beforeMidnight = budget.reserve(1000);
+        clock.advance(Duration.ofSeconds(90));
+        CreditBudget.Reservation afterMidnight = budget.reserve(400);
+
+        // Act
+        budget.settle(beforeMidnight, 0);
+
+        // Assert
+        assertThat(budget.usedToday()).isEqualTo(2);
+        budget.settle(afterMidnight, 0);
+        assertThat(budget.usedToday()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should spread refreshes so they fit the daily budget")
+    void testSustainableInterval() {
+        CreditBudget budget = new CreditBudget(clock, 0, 288);
+
+        assertThat(budget.sustainableInterval(100)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(budget.sustainableInterval(1000)).isEqualTo(Duration.ofMinutes(25));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
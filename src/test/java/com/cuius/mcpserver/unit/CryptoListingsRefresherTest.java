@@ -0,0 +1,145 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.service.CoinMarketCapWebService;
+import com.cuius.mcpserver.service.CreditBudget;
+import com.cuius.mcpserver.service.CryptoListingsRefresher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CryptoListingsRefresher Tests")
+class CryptoListingsRefresherTest {
+
+    @Mock
+    private CoinMarketCapWebService webService;
+
+    private CryptoSnapshotStore snapshotStore;
+    private CryptoListingsRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        snapshotStore = new CryptoSnapshotStore();
+        refresher = new CryptoListingsRefresher(webService, snapshotStore, CreditBudget.unlimited());
+        ReflectionTestUtils.setField(refresher, "limit", 100);
+    }
+
+    @Test
+    @DisplayName("Should publish a new snapshot on refresh")
+    void testRefreshNow_Publishes() {
+        // Arrange
+        when(webService.streamListings(eq(100), any())).thenReturn(createListings("BTC", "ETH"));
+
+        // Act
+        boolean refreshed = refresher.refreshNow();
+
+        // Assert
+        assertThat(refreshed).isTrue();
+        assertThat(snapshotStore.current().getVersion()).isEqualTo(1L);
+        assertThat(snapshotStore.current().size()).isEqualTo(2);
+        assertThat(snapshotStore.isRefreshing()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep serving the stale snapshot when a refresh fails")
+    void testRefreshNow_KeepsStaleSnapshotOnFailure() {
+        // Arrange
+        when(webService.streamListings(anyInt(), any()))
+                .thenReturn(createListings("BTC"))
+                .thenReturn(Flux.empty())
+                .thenReturn(Flux.error(new RuntimeException("API Connection Failed")));
+        refresher.refreshNow();
+
+        // Act
+        boolean emptyResponse = refresher.refreshNow();
+        boolean error = refresher.refreshNow();
+
+        // Assert
+        assertThat(emptyResponse).isFalse();
+        assertThat(error).isFalse();
+        assertThat(snapshotStore.current().getVersion()).isEqualTo(1L);
+        assertThat(snapshotStore.current().findBySymbol("BTC")).hasSize(1);
+        assertThat(snapshotStore.isRefreshing()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should skip a refresh while another one is in flight")
+    void testRefreshNow_SkipsWhenInFlight() {
+        // Arrange
+        snapshotStore.tryBeginRefresh();
+
+        // Act
+        boolean refreshed = refresher.refreshNow();
+
+        // Assert
+        assertThat(refreshed).isFalse();
+        verifyNoInteractions(webService);
+    }
+
+    @Test
+    @DisplayName("Should skip refreshes once the credit budget is exhausted")
+    void testRefreshNow_BudgetExhausted() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(0, 1);
+        refresher = new CryptoListingsRefresher(webService, snapshotStore, budget);
+        ReflectionTestUtils.setField(refresher, "limit", 100);
+        when(webService.streamListings(eq(100), any())).thenReturn(createListings("BTC"));
+
+        // Act
+        boolean first = refresher.refreshNow();
+        boolean second = refresher.refreshNow();
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(budget.usedToday()).isEqualTo(1);
+        verify(webService, times(1)).streamListings(anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should hand the reserved credits back when a refresh fails before any page arrives")
+    void testRefreshNow_ReleasesCreditsOnFailure() {
+        // Arrange
+        CreditBudget budget = new CreditBudget(0, 10);
+        refresher = new CryptoListingsRefresher(webService, snapshotStore, budget);
+        ReflectionTestUtils.setField(refresher, "limit", 100);
+        when(webService.streamListings(eq(100), any()))
+                .thenReturn(Flux.error(new RuntimeException("API Connection Failed")));
+
+        // Act
+        boolean refreshed = refresher.refreshNow();
+
+        // Assert
+        assertThat(refreshed).isFalse();
+        assertThat(budget.usedToday()).isZero();
+    }
+
+    private Flux<CryptoCurrency> createListings(String... symbols) {
+        return Flux.fromStream(IntStream.range(0, symbols.length)
+                .mapToObj(i -> {
+                    CryptoCurrency crypto = new CryptoCurrency();
+                    crypto.setId((long) i + 1);
+                    crypto.setName(symbols[i]);
+                    crypto.setSymbol(symbols[i]);
+                    crypto.setCmcRank(i + 1);
+                    return crypto;
+                }));
+    }
+}
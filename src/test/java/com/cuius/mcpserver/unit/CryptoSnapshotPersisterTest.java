@@ -0,0 +1,86 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.service.CryptoSnapshotPersister;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@DisplayName("CryptoSnapshotPersister Tests")
+class CryptoSnapshotPersisterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should restore the saved snapshot into a fresh store and continue its versions")
+    void testSaveAndLoad() {
+        // Arrange
+        CryptoSnapshotStore previousProcess = new CryptoSnapshotStore();
+        previousProcess.publish(List.of(crypto(1L, "Bitcoin", "BTC", 1)));
+        CryptoSnapshot saved = previousProcess.publish(List.of(crypto(1L, "Bitcoin", "BTC", 1), crypto(2L, "Ethereum", "ETH", 2)));
+        assertThat(persister(previousProcess).save(saved)).isTrue();
+
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+
+        // Act
+        boolean loaded = persister(store).load();
+
+        // Assert
+        assertThat(loaded).isTrue();
+        assertThat(store.current().getVersion()).isEqualTo(2L);
+        assertThat(store.current().size()).isEqualTo(2);
+        assertThat(store.publish(List.of(crypto(3L, "Cardano", "ADA", 3))).getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should not replace a snapshot that was already published")
+    void testLoad_FresherSnapshotWins() {
+        // Arrange
+        CryptoSnapshotStore previousProcess = new CryptoSnapshotStore();
+        persister(previousProcess).save(previousProcess.publish(List.of(crypto(1L, "Bitcoin", "BTC", 1))));
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        store.publish(List.of(crypto(2L, "Ethereum", "ETH", 2), crypto(3L, "Cardano", "ADA", 3)));
+
+        // Act & Assert
+        assertThat(persister(store).load()).isFalse();
+        assertThat(store.current().size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should start empty when the file is missing or unreadable")
+    void testLoad_MissingOrCorruptFile() throws Exception {
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        assertThat(persister(store).load()).isFalse();
+
+        Files.writeString(tempDir.resolve("listings.snapshot"), "garbage");
+        assertThat(persister(store).load()).isFalse();
+        assertThat(store.current().isEmpty()).isTrue();
+    }
+
+    private CryptoSnapshotPersister persister(CryptoSnapshotStore store) {
+        CryptoSnapshotPersister persister = new CryptoSnapshotPersister(store);
+        ReflectionTestUtils.setField(persister, "path", tempDir.resolve("listings.snapshot"));
+        return persister;
+    }
+
+    private static CryptoCurrency crypto(Long id, String name, String symbol, Integer rank) {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(name);
+        crypto.setSymbol(symbol);
+        crypto.setCmcRank(rank);
+        return crypto;
+    }
+}
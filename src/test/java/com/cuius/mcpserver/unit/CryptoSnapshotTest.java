@@ -0,0 +1,428 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.QuoteColumns;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@DisplayName("CryptoSnapshot Tests")
+class CryptoSnapshotTest {
+
+    @Test
+    @DisplayName("Should start from an empty snapshot")
+    void testEmptySnapshot() {
+        CryptoSnapshot snapshot = CryptoSnapshot.empty();
+
+        assertThat(snapshot.getVersion()).isZero();
+        assertThat(snapshot.isEmpty()).isTrue();
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.findBySymbol("BTC")).isEmpty();
+        assertThat(snapshot.searchByName("bit", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not be affected by later changes to the source entries")
+    void testSnapshotIsDetachedFromSource() {
+        // Arrange
+        List<CryptoCurrency> source = new ArrayList<>();
+        CryptoCurrency bitcoin = createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0);
+        source.add(bitcoin);
+
+        // Act
+        CryptoSnapshot snapshot = CryptoSnapshot.of(1L, source);
+        source.clear();
+        bitcoin.setName("Changed");
+        bitcoin.getQuote().get("USD").setPrice(1.0);
+
+        // Assert
+        assertThat(snapshot.getVersion()).isEqualTo(1L);
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.getName(0)).isEqualTo("Bitcoin");
+        assertThat(snapshot.getQuotes().price(0)).isEqualTo(50000.0);
+    }
+
+    @Test
+    @DisplayName("Should index every coin sharing a symbol regardless of case")
+    void testFindBySymbol_DuplicateTickers() {
+        // Arrange
+        CryptoSnapshot snapshot = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0),
+                createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0),
+                createCryptoCurrency(3L, "Bitcoin Token", "btc", 900, 0.01)
+        ));
+
+        // Act & Assert
+        assertThat(snapshot.findBySymbol(" Btc ")).containsExactly(0, 2);
+        assertThat(snapshot.getName(2)).isEqualTo("Bitcoin Token");
+        assertThat(snapshot.findBySymbol("ETH")).containsExactly(1);
+        assertThat(snapshot.findBySymbol("XYZ")).isEmpty();
+        assertThat(snapshot.findBySymbol(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should order entries by rank with unranked coins last")
+    void testRankOrderedView() {
+        // Act
+        CryptoSnapshot snapshot = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(3L, "Cardano", "ADA", 3, 1.5),
+                createCryptoCurrency(9L, "Unranked", "UNR", null, 0.5),
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0),
+                createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0)
+        ));
+
+        // Assert
+        assertThat(List.of(snapshot.getSymbol(0), snapshot.getSymbol(1), snapshot.getSymbol(2), snapshot.getSymbol(3)))
+                .containsExactly("BTC", "ETH", "ADA", "UNR");
+        assertThat(snapshot.getRank(3)).isEqualTo(CryptoSnapshot.NO_RANK);
+        assertThat(snapshot.getQuotes().price(0)).isEqualTo(50000.0);
+        assertThat(snapshot.getQuotes().price(3)).isEqualTo(0.5);
+        assertThat(snapshot.findBySymbol("ada")).containsExactly(2);
+        assertThat(snapshot.searchByName("an", 10)).containsExactly(2, 3);
+    }
+
+    @Test
+    @DisplayName("Should store missing values as NaN and drop duplicate ids")
+    void testColumnsForMissingValues() {
+        // Arrange
+        CryptoCurrency noQuote = createCryptoCurrency(2L, "No Quote", "NOQ", 2, 1.0);
+        noQuote.setQuote(null);
+        noQuote.setMaxSupply(null);
+
+        // Act
+        CryptoSnapshot snapshot = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0),
+                noQuote,
+                createCryptoCurrency(1L, "Bitcoin Again", "BTC", 1, 1.0)
+        ));
+
+        // Assert
+        QuoteColumns quotes = snapshot.getQuotes();
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(quotes.hasQuote(0)).isTrue();
+        assertThat(quotes.hasQuote(1)).isFalse();
+        assertThat(quotes.price(1)).isNaN();
+        assertThat(quotes.percentChange1h(0)).isNaN();
+        assertThat(snapshot.getMaxSupply(1)).isNaN();
+        assertThat(snapshot.getCirculatingSupply(1)).isEqualTo(19000000.0);
+    }
+
+    @Test
+    @DisplayName("Should share every column and index when no entry was updated")
+    void testDeltaBuild_Unchanged() {
+        // Arrange
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 12, 0);
+        CryptoSnapshot previous = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0, updated),
+                createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0, updated)
+        ));
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder()
+                .add(createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0, updated))
+                .add(createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0, updated));
+
+        // Act
+        CryptoSnapshot refreshed = builder.build(2L, previous);
+
+        // Assert
+        assertThat(refreshed.getVersion()).isEqualTo(2L);
+        assertThat(refreshed.getQuotes()).isSameAs(previous.getQuotes());
+        assertThat(refreshed.getAggregates("USD")).isSameAs(previous.getAggregates("USD"));
+        assertThat(refreshed.getLastUpdated(0)).isEqualTo(updated.toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertThat(refreshed.findBySymbol("eth")).containsExactly(1);
+        assertThat(refreshed.searchByName("ether", 10)).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should only take values from entries whose last_updated moved")
+    void testDeltaBuild_ChangedRows() {
+        // Arrange
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 12, 0);
+        CryptoSnapshot previous = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0, updated),
+                createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0, updated)
+        ));
+        CryptoCurrency ethereum = createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3100.0, updated.plusMinutes(1));
+        ethereum.getQuote().get("USD").setPercentChange1h(0.4);
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder()
+                .add(createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 1.0, updated))
+                .add(ethereum);
+
+        // Act
+        CryptoSnapshot refreshed = builder.build(2L, previous);
+
+        // Assert
+        QuoteColumns quotes = refreshed.getQuotes();
+        assertThat(quotes).isNotSameAs(previous.getQuotes());
+        assertThat(quotes.price(0)).isEqualTo(50000.0);
+        assertThat(quotes.price(1)).isEqualTo(3100.0);
+        assertThat(quotes.percentChange1h(1)).isEqualTo(0.4);
+        assertThat(quotes.percentChange24h(1)).isEqualTo(2.5);
+        assertThat(refreshed.getLastUpdated(1)).isEqualTo(updated.plusMinutes(1).toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertThat(previous.getQuotes().price(1)).isEqualTo(3000.0);
+        assertThat(previous.getQuotes().percentChange1h(1)).isNaN();
+    }
+
+    @Test
+    @DisplayName("Should always re-read entries without a timestamp")
+    void testDeltaBuild_MissingTimestamp() {
+        // Arrange
+        CryptoSnapshot previous = CryptoSnapshot.of(1L, List.of(createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0)));
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder().add(createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 51000.0));
+
+        // Act
+        CryptoSnapshot refreshed = builder.build(2L, previous);
+
+        // Assert
+        assertThat(refreshed.getLastUpdated(0)).isEqualTo(CryptoSnapshot.NO_TIMESTAMP);
+        assertThat(refreshed.getQuotes().price(0)).isEqualTo(51000.0);
+    }
+
+    @Test
+    @DisplayName("Should keep the tag index while tags are unchanged and rebuild it when one changes")
+    void testDeltaBuild_Tags() {
+        // Arrange
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 12, 0);
+        CryptoCurrency bitcoin = createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0, updated);
+        CryptoCurrency ethereum = createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0, updated);
+        bitcoin.setTags(List.of("Mineable", "pow", "mineable"));
+        ethereum.setTags(List.of("smart-contracts"));
+        CryptoSnapshot previous = CryptoSnapshot.of(1L, List.of(bitcoin, ethereum));
+
+        // Act
+        CryptoSnapshot unchanged = CryptoSnapshot.builder().add(bitcoin).add(ethereum).build(2L, previous);
+        ethereum.setTags(List.of("smart-contracts", "pow"));
+        CryptoSnapshot retagged = CryptoSnapshot.builder().add(bitcoin).add(ethereum).build(3L, previous);
+
+        // Assert
+        assertThat(previous.getTags(0)).containsExactly("mineable", "pow");
+        assertThat(unchanged.getTagIndex()).isSameAs(previous.getTagIndex());
+        assertThat(retagged.getTagIndex()).isNotSameAs(previous.getTagIndex());
+        assertThat(retagged.getTagIndex().count("POW")).isEqualTo(2);
+        assertThat(retagged.getQuotes()).isSameAs(previous.getQuotes());
+    }
+
+    @Test
+    @DisplayName("Should rebuild fully when most of the ranking changed")
+    void testDeltaBuild_LayoutChanged() {
+        // Arrange
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 12, 0);
+        CryptoSnapshot previous = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0, updated),
+                createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0, updated)
+        ));
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder()
+                .add(createCryptoCurrency(2L, "Ethereum", "ETH", 1, 3000.0, updated))
+                .add(createCryptoCurrency(1L, "Bitcoin", "BTC", 2, 50000.0, updated))
+                .add(createCryptoCurrency(3L, "Cardano", "ADA", 3, 1.5, updated));
+
+        // Act
+        CryptoSnapshot refreshed = builder.build(2L, previous);
+
+        // Assert
+        assertThat(refreshed.size()).isEqualTo(3);
+        assertThat(refreshed.getSymbol(0)).isEqualTo("ETH");
+        assertThat(refreshed.findBySymbol("BTC")).containsExactly(1);
+        assertThat(refreshed.findBySymbol("ADA")).containsExactly(2);
+        assertThat(refreshed.getQuotes().price(0)).isEqualTo(3000.0);
+    }
+
+    @Test
+    @DisplayName("Should only patch the rows of coins that swapped ranks")
+    void testDeltaBuild_RankSwap() {
+        // Arrange
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 12, 0);
+        CryptoSnapshot previous = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0, updated),
+                createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0, updated),
+                createCryptoCurrency(3L, "Cardano", "ADA", 3, 1.5, updated),
+                createCryptoCurrency(4L, "Solana", "SOL", 4, 150.0, updated)
+        ));
+        CryptoSnapshot.Builder builder = CryptoSnapshot.builder()
+                .add(createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0, updated))
+                .add(createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0, updated))
+                .add(createCryptoCurrency(4L, "Solana", "SOL", 3, 150.0, updated))
+                .add(createCryptoCurrency(3L, "Cardano", "ADA", 4, 1.5, updated));
+
+        // Act
+        CryptoSnapshot refreshed = builder.build(2L, previous);
+
+        // Assert
+        assertThat(refreshed.getTagIndex()).isSameAs(previous.getTagIndex());
+        assertThat(refreshed.getId(2)).isEqualTo(4L);
+        assertThat(refreshed.getRank(2)).isEqualTo(3);
+        assertThat(refreshed.getQuotes().price(2)).isEqualTo(150.0);
+        assertThat(refreshed.getQuotes().price(3)).isEqualTo(1.5);
+        assertThat(refreshed.findBySymbol("sol")).containsExactly(2);
+        assertThat(refreshed.findBySymbol("ada")).containsExactly(3);
+        assertThat(refreshed.findBySymbol("btc")).containsExactly(0);
+        assertThat(refreshed.searchByName("an", 10)).containsExactly(2, 3);
+        assertThat(refreshed.searchByName("cardano", 10)).containsExactly(3);
+        assertThat(previous.findBySymbol("sol")).containsExactly(3);
+        assertThat(previous.searchByName("cardano", 10)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Should patch moved, added, dropped and renamed rows into the snapshot a full build produces")
+    void testDeltaBuild_MatchesFullBuild() {
+        Random random = new Random(42L);
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 300; i++) {
+            // Arrange
+            List<CryptoCurrency> listings = new ArrayList<>();
+            for (long id = 1; id <= 20; id++) {
+                listings.add(createRandomCryptoCurrency(random, id, updated));
+            }
+            CryptoSnapshot previous = CryptoSnapshot.of(1L, rerank(listings));
+            for (int change = 1 + random.nextInt(3); change > 0; change--) {
+                CryptoCurrency crypto = listings.get(random.nextInt(listings.size()));
+                switch (random.nextInt(5)) {
+                    case 0 -> Collections.swap(listings, random.nextInt(listings.size()), random.nextInt(listings.size()));
+                    case 1 -> {
+                        crypto.setLastUpdated(updated.plusMinutes(change));
+                        crypto.getQuote().get("USD").setPrice((double) random.nextInt(100));
+                    }
+                    case 2 -> listings.remove(crypto);
+                    case 3 -> listings.add(random.nextInt(listings.size()), createRandomCryptoCurrency(random, 100L + change, updated));
+                    default -> {
+                        crypto.setSymbol("NEW");
+                        crypto.setName("Renamed " + crypto.getName());
+                        crypto.setTags(List.of("renamed"));
+                    }
+                }
+            }
+            CryptoSnapshot.Builder builder = CryptoSnapshot.builder();
+            rerank(listings).forEach(builder::add);
+
+            // Act
+            CryptoSnapshot delta = builder.build(2L, previous);
+            CryptoSnapshot full = CryptoSnapshot.of(2L, listings);
+
+            // Assert
+            assertThat(describe(delta)).isEqualTo(describe(full));
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge the quote currencies of a coin listed once per convert batch")
+    void testBuilder_MergesConvertBatches() {
+        // Arrange
+        CryptoCurrency bitcoinEur = createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 46000.0);
+        bitcoinEur.setQuote(Map.of("EUR", bitcoinEur.getQuote().get("USD")));
+        CryptoCurrency ethereumEur = createCryptoCurrency(2L, "Ethereum", "ETH", 2, 2800.0);
+        ethereumEur.setQuote(Map.of("EUR", ethereumEur.getQuote().get("USD")));
+
+        // Act
+        CryptoSnapshot snapshot = CryptoSnapshot.builder()
+                .add(bitcoinEur)
+                .add(createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0))
+                .add(createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0))
+                .add(ethereumEur)
+                .build(1L);
+
+        // Assert
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.getCurrencies()).containsExactly("EUR", "USD");
+        assertThat(snapshot.getDefaultCurrency()).isEqualTo("USD");
+        assertThat(snapshot.getQuotes().price(0)).isEqualTo(50000.0);
+        assertThat(snapshot.getQuotes(" eur ").price(0)).isEqualTo(46000.0);
+        assertThat(snapshot.getQuotes("EUR").price(1)).isEqualTo(2800.0);
+        assertThat(snapshot.getQuotes("GBP")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the first fetched currency and pad missing quotes")
+    void testBuilder_WithoutUsd() {
+        // Arrange
+        CryptoCurrency bitcoin = createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 46000.0);
+        bitcoin.setQuote(Map.of("EUR", bitcoin.getQuote().get("USD")));
+        CryptoCurrency ethereum = createCryptoCurrency(2L, "Ethereum", "ETH", 2, null);
+        ethereum.setQuote(null);
+
+        // Act
+        CryptoSnapshot snapshot = CryptoSnapshot.of(1L, List.of(bitcoin, ethereum));
+
+        // Assert
+        assertThat(snapshot.getDefaultCurrency()).isEqualTo("EUR");
+        assertThat(snapshot.getQuotes().hasQuote(0)).isTrue();
+        assertThat(snapshot.getQuotes().hasQuote(1)).isFalse();
+        assertThat(snapshot.getQuotes().price(1)).isNaN();
+    }
+
+    private static List<CryptoCurrency> rerank(List<CryptoCurrency> listings) {
+        for (int i = 0; i < listings.size(); i++) {
+            listings.get(i).setCmcRank(i + 1);
+        }
+        return listings;
+    }
+
+    private CryptoCurrency createRandomCryptoCurrency(Random random, long id, LocalDateTime lastUpdated) {
+        String[] names = {"Bitcoin", "Bitcoin Cash", "Ethereum", "Ether Classic", "Dogecoin"};
+        String[] symbols = {"BTC", "BCH", "ETH", "etc", "DOGE"};
+        String[] tags = {"pow", "pos", "defi", "memes"};
+        int coin = random.nextInt(names.length);
+        CryptoCurrency crypto = createCryptoCurrency(id, names[coin], symbols[coin], 0, (double) random.nextInt(100), lastUpdated);
+        crypto.setTags(List.of(tags[random.nextInt(tags.length)], tags[random.nextInt(tags.length)]));
+        return crypto;
+    }
+
+    // Every value, index and aggregate a reader can observe, per ordinal.
+    private static String describe(CryptoSnapshot snapshot) {
+        StringBuilder sb = new StringBuilder();
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            sb.append(snapshot.getId(ordinal)).append(' ').append(snapshot.getRank(ordinal)).append(' ')
+              .append(snapshot.getName(ordinal)).append(' ').append(snapshot.getSymbol(ordinal)).append(' ')
+              .append(snapshot.getLastUpdated(ordinal)).append(' ').append(snapshot.getTags(ordinal)).append(' ')
+              .append(snapshot.getQuotes().price(ordinal)).append('\n');
+        }
+        for (String symbol : new String[]{"btc", "bch", "eth", "etc", "doge", "new"}) {
+            sb.append(symbol).append(Arrays.toString(snapshot.findBySymbol(symbol))).append('\n');
+        }
+        for (String query : new String[]{"bitcoin", "ether", "coin", "cash", "renamed", "do"}) {
+            sb.append(query).append(Arrays.toString(snapshot.searchByName(query, 100))).append('\n');
+        }
+        sb.append(snapshot.getTagIndex().mostCommon(10)).append(' ').append(snapshot.getTagIndex().count("renamed")).append('\n');
+        sb.append(snapshot.getAggregates("USD").getCoins());
+        return sb.toString();
+    }
+
+    private CryptoCurrency createCryptoCurrency(Long id, String name, String symbol, Integer rank, Double price,
+                                                LocalDateTime lastUpdated) {
+        CryptoCurrency crypto = createCryptoCurrency(id, name, symbol, rank, price);
+        crypto.setLastUpdated(lastUpdated);
+        crypto.getQuote().get("USD").setLastUpdated(lastUpdated);
+        return crypto;
+    }
+
+    private CryptoCurrency createCryptoCurrency(Long id, String name, String symbol, Integer rank, Double price) {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(name);
+        crypto.setSymbol(symbol);
+        crypto.setCmcRank(rank);
+        crypto.setCirculatingSupply(19000000.0);
+        crypto.setMaxSupply(21000000.0);
+
+        Quote usdQuote = new Quote();
+        usdQuote.setPrice(price);
+        usdQuote.setPercentChange24h(2.5);
+        Map<String, Quote> quoteMap = new HashMap<>();
+        quoteMap.put("USD", usdQuote);
+        crypto.setQuote(quoteMap);
+        return crypto;
+    }
+}
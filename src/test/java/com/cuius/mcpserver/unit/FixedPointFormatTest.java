@@ -0,0 +1,81 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.service.FixedPointFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@DisplayName("FixedPointFormat Tests")
+class FixedPointFormatTest {
+
+    @Test
+    @DisplayName("Should match String.format for edge cases and half-cent ties")
+    void testEdgeCases() {
+        double[] values = {0.0, -0.0, 0.125, 1.005, 2.675, 0.005, -0.001, -0.005, 0.995, 99.995, 1e13 + 0.005,
+                9.999999999999e12, 1e15, 1e20, Double.MAX_VALUE, Double.MIN_VALUE, -Double.MIN_VALUE,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN};
+
+        for (double value : values) {
+            assertFormatsLikeStringFormat(value);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match String.format across magnitudes")
+    void testRandomValues() {
+        Random random = new Random(42L);
+        for (int i = 0; i < 200_000; i++) {
+            double magnitude = Math.pow(10, random.nextInt(30) - 12);
+            assertFormatsLikeStringFormat((random.nextDouble() * 2 - 1) * magnitude);
+        }
+        for (int cents = 0; cents < 100_000; cents++) {
+            double tie = cents / 100.0 + 0.005;
+            assertFormatsLikeStringFormat(tie);
+            assertFormatsLikeStringFormat(-tie);
+            assertFormatsLikeStringFormat(Math.nextUp(tie));
+            assertFormatsLikeStringFormat(Math.nextDown(tie));
+        }
+    }
+
+    @Test
+    @DisplayName("Should match String.format for every supported number of decimals")
+    void testAppendFixed() {
+        Random random = new Random(7L);
+        for (int decimals = 1; decimals <= FixedPointFormat.MAX_DECIMALS; decimals++) {
+            for (int i = 0; i < 20_000; i++) {
+                double value = (random.nextDouble() * 2 - 1) * Math.pow(10, random.nextInt(16) - 8);
+                assertThat(FixedPointFormat.appendFixed(new StringBuilder(), value, decimals).toString())
+                        .as("value %s with %d decimals", value, decimals)
+                        .isEqualTo(String.format("%." + decimals + "f", value));
+            }
+        }
+        assertThat(FixedPointFormat.appendFixed(new StringBuilder(), 0.00001234, 8).toString()).isEqualTo("0.00001234");
+    }
+
+    @Test
+    @DisplayName("Should append to existing content and honor a locale with a comma separator")
+    void testAppendAndLocale() {
+        Locale original = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            assertThat(FixedPointFormat.appendTwoDecimals(new StringBuilder("$"), 50000.0).toString()).isEqualTo("$50000.00");
+
+            Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+            assertFormatsLikeStringFormat(1234.5);
+            assertThat(FixedPointFormat.appendTwoDecimals(new StringBuilder(), 1234.5).toString()).isEqualTo("1234,50");
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, original);
+        }
+    }
+
+    private void assertFormatsLikeStringFormat(double value) {
+        assertThat(FixedPointFormat.appendTwoDecimals(new StringBuilder(), value).toString())
+                .as("value %s", value)
+                .isEqualTo(String.format("%.2f", value));
+    }
+}
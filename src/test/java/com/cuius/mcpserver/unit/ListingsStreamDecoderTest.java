@@ -0,0 +1,111 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Status;
+import com.cuius.mcpserver.service.ListingsStreamDecoder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+@DisplayName("ListingsStreamDecoder Tests")
+class ListingsStreamDecoderTest {
+
+    private static final String LISTINGS_JSON = """
+            {
+                "status": { "error_code": 0, "credit_count": 2, "elapsed": 12 },
+                "data": [
+                    {
+                        "id": 1, "name": "Bitcoin", "symbol": "BTC", "cmc_rank": 1,
+                        "tags": ["mineable", "pow"],
+                        "platform": { "id": 0, "nested": [ { "deep": true } ] },
+                        "quote": { "USD": { "price": 50000, "percent_change_24h": 2.5 } }
+                    },
+                    { "id": 2, "name": "Ethereum", "symbol": "ETH", "cmc_rank": 2, "quote": {} }
+                ],
+                "trailing": [ { "ignored": 1 } ]
+            }
+            """;
+
+    private final ListingsStreamDecoder decoder = new ListingsStreamDecoder(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    @DisplayName("Should decode data entries and status from a single buffer")
+    void testDecode_SingleBuffer() {
+        // Arrange
+        List<Status> statuses = new ArrayList<>();
+
+        // Act
+        List<CryptoCurrency> decoded = decoder.decode(chunks(LISTINGS_JSON, LISTINGS_JSON.length()), statuses::add)
+                .collectList()
+                .block();
+
+        // Assert
+        assertThat(decoded).extracting(CryptoCurrency::getSymbol).containsExactly("BTC", "ETH");
+        assertThat(decoded.getFirst().getTags()).containsExactly("mineable", "pow");
+        assertThat(decoded.getFirst().getQuote().get("USD").getPrice()).isEqualTo(50000.0);
+        assertThat(statuses).hasSize(1);
+        assertThat(statuses.getFirst().getCreditCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should decode entries split across arbitrary buffer boundaries")
+    void testDecode_SplitBuffers() {
+        for (int chunkSize = 1; chunkSize < 40; chunkSize += 3) {
+            List<CryptoCurrency> decoded = decoder.decode(chunks(LISTINGS_JSON, chunkSize), null)
+                    .collectList()
+                    .block();
+
+            assertThat(decoded)
+                    .as("chunk size %d", chunkSize)
+                    .extracting(CryptoCurrency::getName)
+                    .containsExactly("Bitcoin", "Ethereum");
+        }
+    }
+
+    @Test
+    @DisplayName("Should emit entries before the body is complete")
+    void testDecode_EmitsIncrementally() {
+        // Arrange
+        String firstEntryOnly = LISTINGS_JSON.substring(0, LISTINGS_JSON.indexOf("{ \"id\": 2"));
+
+        // Act
+        List<CryptoCurrency> decoded = decoder.decode(chunks(firstEntryOnly, 16).concatWith(Flux.never()), null)
+                .take(1)
+                .collectList()
+                .block();
+
+        // Assert
+        assertThat(decoded).extracting(CryptoCurrency::getSymbol).containsExactly("BTC");
+    }
+
+    @Test
+    @DisplayName("Should fail on malformed JSON")
+    void testDecode_MalformedJson() {
+        Flux<CryptoCurrency> decoded = decoder.decode(chunks("{ this is not valid json }", 8), null);
+
+        assertThatThrownBy(decoded::blockLast).isInstanceOf(RuntimeException.class);
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + chunkSize));
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
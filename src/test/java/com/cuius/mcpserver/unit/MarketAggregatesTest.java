@@ -0,0 +1,94 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.MarketAggregates;
+import com.cuius.mcpserver.cache.QuoteColumns.Field;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@Tag("unit")
+@DisplayName("MarketAggregates Tests")
+class MarketAggregatesTest {
+
+    @Test
+    @DisplayName("Should sum totals and rank buckets and skip missing values")
+    void testTotalsAndBuckets() {
+        // Arrange
+        List<CryptoCurrency> listings = new ArrayList<>();
+        for (int rank = 1; rank <= 12; rank++) {
+            listings.add(createCryptoCurrency((long) rank, "C" + rank, rank, rank == 12 ? null : 100.0 * rank, 10.0, null));
+        }
+
+        // Act
+        MarketAggregates aggregates = CryptoSnapshot.of(1L, listings).getAggregates("USD");
+
+        // Assert
+        assertThat(aggregates.getCoins()).isEqualTo(12);
+        assertThat(aggregates.getTotalMarketCap()).isEqualTo(6600.0);
+        assertThat(aggregates.getTotalVolume24h()).isEqualTo(120.0);
+        assertThat(MarketAggregates.rankBuckets()).startsWith(10, 100);
+        assertThat(aggregates.getBucketCoins(0)).isEqualTo(10);
+        assertThat(aggregates.getBucketMarketCap(0)).isEqualTo(5500.0);
+        assertThat(aggregates.getBucketVolume24h(0)).isEqualTo(100.0);
+        assertThat(aggregates.getBucketCoins(1)).isEqualTo(12);
+        assertThat(aggregates.dominance(660.0)).isCloseTo(10.0, within(1e-9));
+        assertThat(aggregates.getChangeCoins(Field.PERCENT_CHANGE_24H)).isZero();
+        assertThat(aggregates.getMedianChange(Field.PERCENT_CHANGE_24H)).isNaN();
+    }
+
+    @Test
+    @DisplayName("Should compute mean, median and up/down counts of a percent change")
+    void testChanges() {
+        // Arrange
+        CryptoSnapshot snapshot = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(1L, "BTC", 1, 1000.0, 10.0, 4.0),
+                createCryptoCurrency(2L, "ETH", 2, 500.0, 10.0, -2.0),
+                createCryptoCurrency(3L, "ADA", 3, 100.0, 10.0, 0.0),
+                createCryptoCurrency(4L, "DOGE", 4, 50.0, 10.0, 10.0),
+                createCryptoCurrency(5L, "TNY", 5, 1.0, 10.0, null)
+        ));
+
+        // Act
+        MarketAggregates aggregates = snapshot.getAggregates("USD");
+
+        // Assert
+        assertThat(aggregates.getChangeCoins(Field.PERCENT_CHANGE_24H)).isEqualTo(4);
+        assertThat(aggregates.getMeanChange(Field.PERCENT_CHANGE_24H)).isEqualTo(3.0);
+        assertThat(aggregates.getMedianChange(Field.PERCENT_CHANGE_24H)).isEqualTo(2.0);
+        assertThat(aggregates.getAdvancing(Field.PERCENT_CHANGE_24H)).isEqualTo(2);
+        assertThat(aggregates.getDeclining(Field.PERCENT_CHANGE_24H)).isEqualTo(1);
+        assertThat(snapshot.getAggregates("EUR")).isNull();
+        assertThatThrownBy(() -> aggregates.getMeanChange(Field.PRICE)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CryptoCurrency createCryptoCurrency(Long id, String symbol, Integer rank, Double marketCap,
+                                                Double volume24h, Double percentChange24h) {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(symbol);
+        crypto.setSymbol(symbol);
+        crypto.setCmcRank(rank);
+
+        Quote usdQuote = new Quote();
+        usdQuote.setPrice(1.0);
+        usdQuote.setMarketCap(marketCap);
+        usdQuote.setVolume24h(volume24h);
+        usdQuote.setPercentChange24h(percentChange24h);
+        Map<String, Quote> quoteMap = new HashMap<>();
+        quoteMap.put("USD", usdQuote);
+        crypto.setQuote(quoteMap);
+        return crypto;
+    }
+}
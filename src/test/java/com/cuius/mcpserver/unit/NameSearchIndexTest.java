@@ -0,0 +1,96 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.NameSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@DisplayName("NameSearchIndex Tests")
+class NameSearchIndexTest {
+
+    private static final String[] NAMES = {"Bitcoin", "Ethereum", "Bitcoin Cash", "Wrapped Bitcoin", null, "Ethereum Classic"};
+
+    @Test
+    @DisplayName("Should return matching ordinals in ascending order")
+    void testSearch_OrdinalOrder() {
+        NameSearchIndex index = NameSearchIndex.build(NAMES);
+
+        assertThat(index.search("bitcoin", 10)).containsExactly(0, 2, 3);
+        assertThat(index.search("  ETHEREUM ", 10)).containsExactly(1, 5);
+    }
+
+    @Test
+    @DisplayName("Should respect the result limit")
+    void testSearch_Limit() {
+        NameSearchIndex index = NameSearchIndex.build(NAMES);
+
+        assertThat(index.search("coin", 2)).containsExactly(0, 2);
+    }
+
+    @Test
+    @DisplayName("Should fall back to a scan for queries shorter than a trigram")
+    void testSearch_ShortQuery() {
+        NameSearchIndex index = NameSearchIndex.build(NAMES);
+
+        assertThat(index.search("Bi", 10)).containsExactly(0, 2, 3);
+        assertThat(index.search("z", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not match names that only share the query's trigrams")
+    void testSearch_TrigramsWithoutSubstring() {
+        NameSearchIndex index = NameSearchIndex.build(new String[]{"abcxbcd", "abcd"});
+
+        assertThat(index.search("abcd", 10)).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should agree with a linear contains scan")
+    void testSearch_MatchesLinearScan() {
+        Random random = new Random(42);
+        String[] names = new String[2000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = randomName(random);
+        }
+        NameSearchIndex index = NameSearchIndex.build(names);
+
+        for (int q = 0; q < 200; q++) {
+            String name = names[random.nextInt(names.length)];
+            int start = random.nextInt(name.length() - 1);
+            String query = name.substring(start, Math.min(name.length(), start + 2 + random.nextInt(5)));
+
+            assertThat(index.search(query, Integer.MAX_VALUE))
+                    .as("query '%s'", query)
+                    .containsExactlyElementsOf(linearScan(names, query));
+        }
+    }
+
+    private static List<Integer> linearScan(String[] names, String query) {
+        String needle = query.toLowerCase(Locale.ROOT).trim();
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(i);
+            }
+        }
+        return matches;
+    }
+
+    private static String randomName(Random random) {
+        String alphabet = "abcdefgh ";
+        StringBuilder sb = new StringBuilder();
+        int length = 4 + random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return "X" + sb;
+    }
+}
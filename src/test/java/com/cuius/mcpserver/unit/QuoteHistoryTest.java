@@ -0,0 +1,152 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.cache.QuoteHistory;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+@DisplayName("QuoteHistory Tests")
+class QuoteHistoryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Should keep the most recent samples once the ring wraps, oldest first")
+    void testRecord_Wraparound() {
+        // Arrange
+        QuoteHistory history = new QuoteHistory(3);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            history.record(CryptoSnapshot.of(i + 1, List.of(createCryptoCurrency(1L, "BTC", 100.0 + i, START.plusMinutes(i)))));
+        }
+
+        // Assert
+        QuoteHistory.Series series = history.series(1L, 10);
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.price(0)).isEqualTo(102.0);
+        assertThat(series.price(2)).isEqualTo(104.0);
+        assertThat(series.timestamp(2)).isEqualTo(START.plusMinutes(4).toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertThat(series.marketCap(2)).isEqualTo(104.0 * 1000);
+        assertThat(series.volume24h(2)).isEqualTo(5000.0);
+        assertThat(history.series(1L, 2).price(0)).isEqualTo(103.0);
+    }
+
+    @Test
+    @DisplayName("Should skip coins whose last_updated did not move")
+    void testRecord_UnchangedTimestamp() {
+        // Arrange
+        QuoteHistory history = new QuoteHistory(10);
+
+        // Act
+        history.record(CryptoSnapshot.of(1L, List.of(createCryptoCurrency(1L, "BTC", 100.0, START))));
+        history.record(CryptoSnapshot.of(2L, List.of(createCryptoCurrency(1L, "BTC", 100.0, START))));
+        history.record(CryptoSnapshot.of(3L, List.of(createCryptoCurrency(1L, "BTC", 99.0, START.minusMinutes(1)))));
+
+        // Assert
+        assertThat(history.series(1L, 10).size()).isEqualTo(1);
+        assertThat(history.series(2L, 10).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep separate histories for coins spread over several segments")
+    void testRecord_ManyCoins() {
+        // Arrange
+        QuoteHistory history = new QuoteHistory(2);
+        List<CryptoCurrency> listings = new ArrayList<>();
+        for (long id = 1; id <= 600; id++) {
+            listings.add(createCryptoCurrency(id, "C" + id, id, START));
+        }
+
+        // Act
+        history.record(CryptoSnapshot.of(1L, listings));
+
+        // Assert
+        assertThat(history.coinCount()).isEqualTo(600);
+        assertThat(history.series(1L, 10).price(0)).isEqualTo(1.0);
+        assertThat(history.series(300L, 10).price(0)).isEqualTo(300.0);
+        assertThat(history.series(600L, 10).price(0)).isEqualTo(600.0);
+    }
+
+    @Test
+    @DisplayName("Should sample every snapshot published to the store")
+    void testPublishListener() {
+        // Arrange
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        QuoteHistory history = new QuoteHistory(5, store);
+
+        // Act
+        store.publish(List.of(createCryptoCurrency(1L, "BTC", 100.0, START)));
+        store.publish(List.of(createCryptoCurrency(1L, "BTC", 101.0, START.plusMinutes(5))));
+
+        // Assert
+        assertThat(history.series(1L, 5).size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should restart a coin's history when the default quote currency changes")
+    void testRecord_CurrencyChange() {
+        // Arrange
+        QuoteHistory history = new QuoteHistory(10);
+
+        // Act
+        history.record(CryptoSnapshot.of(1L, List.of(createCryptoCurrency(1L, "BTC", 100.0, START))));
+        history.record(CryptoSnapshot.of(2L, List.of(createCryptoCurrency(1L, "BTC", 90.0, START.plusMinutes(5), "EUR"))));
+
+        // Assert
+        QuoteHistory.Series series = history.series(1L, 10);
+        assertThat(series.size()).isEqualTo(1);
+        assertThat(series.getCurrency()).isEqualTo("EUR");
+        assertThat(series.price(0)).isEqualTo(90.0);
+    }
+
+    @Test
+    @DisplayName("Should record nothing when disabled and reject capacities that do not fit a segment")
+    void testCapacityBounds() {
+        QuoteHistory disabled = QuoteHistory.disabled();
+        disabled.record(CryptoSnapshot.of(1L, List.of(createCryptoCurrency(1L, "BTC", 100.0, START))));
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.series(1L, 10).isEmpty()).isTrue();
+        assertThatThrownBy(() -> new QuoteHistory(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new QuoteHistory(Integer.MAX_VALUE)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CryptoCurrency createCryptoCurrency(Long id, String symbol, double price, LocalDateTime lastUpdated) {
+        return createCryptoCurrency(id, symbol, price, lastUpdated, "USD");
+    }
+
+    private CryptoCurrency createCryptoCurrency(Long id, String symbol, double price, LocalDateTime lastUpdated,
+                                                String currency) {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(symbol);
+        crypto.setSymbol(symbol);
+        crypto.setCmcRank(id.intValue());
+        crypto.setLastUpdated(lastUpdated);
+
+        Quote quote = new Quote();
+        quote.setPrice(price);
+        quote.setMarketCap(price * 1000);
+        quote.setVolume24h(5000.0);
+        quote.setLastUpdated(lastUpdated);
+        Map<String, Quote> quoteMap = new HashMap<>();
+        quoteMap.put(currency, quote);
+        crypto.setQuote(quoteMap);
+        return crypto;
+    }
+}
@@ -0,0 +1,148 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.QuoteColumns;
+import com.cuius.mcpserver.cache.QuoteColumns.Field;
+import com.cuius.mcpserver.cache.QuoteQuery;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+@DisplayName("QuoteQuery Tests")
+class QuoteQueryTest {
+
+    private QuoteColumns quotes;
+
+    @BeforeEach
+    void setUp() {
+        CryptoSnapshot snapshot = CryptoSnapshot.of(1L, List.of(
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0, 950e9, 5.0),
+                createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0, 360e9, 8.0),
+                createCryptoCurrency(3L, "Tether", "USDT", 3, 1.0, 110e9, 0.0),
+                createCryptoCurrency(4L, "Cardano", "ADA", 4, 0.5, 18e9, 8.0),
+                createCryptoCurrency(5L, "Tiny", "TNY", 5, 0.01, null, -12.0)
+        ));
+        quotes = snapshot.getQuotes();
+    }
+
+    @Test
+    @DisplayName("Should intersect range filters and keep rank order without a sort field")
+    void testRun_RangesInRankOrder() {
+        // Act
+        QuoteQuery.Result result = QuoteQuery.parse("market_cap >= 1e10 and price < 5000, percent_change_7d>=0").run(quotes);
+
+        // Assert
+        assertThat(result.ordinals()).containsExactly(1, 2, 3);
+        assertThat(result.matches()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should sort by a field, keep ties in rank order and apply the limit after counting")
+    void testRun_SortedAndLimited() {
+        // Act
+        QuoteQuery.Result descending = QuoteQuery.parse("price>0.1").sortBy(Field.PERCENT_CHANGE_7D, true).limit(3).run(quotes);
+        QuoteQuery.Result ascending = QuoteQuery.parse(null).sortBy(Field.MARKET_CAP, false).run(quotes);
+
+        // Assert
+        assertThat(descending.ordinals()).containsExactly(1, 3, 0);
+        assertThat(descending.matches()).isEqualTo(4);
+        assertThat(ascending.ordinals()).containsExactly(3, 2, 1, 0);
+    }
+
+    @Test
+    @DisplayName("Should read a range on the sort field off the ends of its index")
+    void testRun_RangeOnSortField() {
+        // Act
+        QuoteQuery.Result rising = QuoteQuery.parse("percent_change_7d>0").sortBy(Field.PERCENT_CHANGE_7D, true).limit(10).run(quotes);
+        QuoteQuery.Result falling = QuoteQuery.parse("percent_change_7d<0").sortBy(Field.PERCENT_CHANGE_7D, false).limit(10).run(quotes);
+        QuoteQuery.Result flat = QuoteQuery.parse("percent_change_7d>8").sortBy(Field.PERCENT_CHANGE_7D, true).run(quotes);
+
+        // Assert
+        assertThat(rising.ordinals()).containsExactly(1, 3, 0);
+        assertThat(rising.matches()).isEqualTo(3);
+        assertThat(falling.ordinals()).containsExactly(4);
+        assertThat(flat.ordinals()).isEmpty();
+        assertThat(flat.matches()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should match a brute-force scan for random queries")
+    void testRun_MatchesScan() {
+        // Arrange
+        Random random = new Random(42L);
+        List<CryptoCurrency> listings = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            listings.add(createCryptoCurrency((long) i, "Coin " + i, "C" + i, i, (double) random.nextInt(50),
+                    random.nextInt(10) == 0 ? null : random.nextDouble() * 1e9, (double) (random.nextInt(21) - 10)));
+        }
+        QuoteColumns columns = CryptoSnapshot.of(1L, listings).getQuotes();
+
+        for (int i = 0; i < 500; i++) {
+            double minPrice = random.nextInt(50);
+            double maxChange = random.nextInt(21) - 10;
+            Field sortField = random.nextBoolean() ? Field.MARKET_CAP : Field.PRICE;
+
+            // Act
+            QuoteQuery.Result result = QuoteQuery.parse("price>=" + minPrice + ", percent_change_7d<" + maxChange)
+                    .sortBy(sortField, true)
+                    .limit(20)
+                    .run(columns);
+
+            // Assert
+            List<Integer> expected = IntStream.range(0, 500)
+                    .filter(o -> columns.price(o) >= minPrice && columns.percentChange7d(o) < maxChange
+                            && !Double.isNaN(columns.get(sortField, o)))
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(o -> -columns.get(sortField, o)).thenComparingInt(o -> o))
+                    .toList();
+            assertThat(result.matches()).isEqualTo(expected.size());
+            assertThat(result.ordinals()).containsExactlyElementsOf(expected.subList(0, Math.min(20, expected.size())));
+        }
+    }
+
+    @Test
+    @DisplayName("Should describe equivalent queries identically and reject malformed conditions")
+    void testParse() {
+        assertThat(QuoteQuery.parse("PRICE > 1, price >= 1, market_cap<=2.5e9").sortBy(Field.PRICE, false).limit(5))
+                .hasToString("price>1, market_cap<=2500000000 sort price asc limit 5");
+        assertThat(QuoteQuery.parse("price=0.50").describeFilters()).isEqualTo("price=0.5");
+
+        assertThatThrownBy(() -> QuoteQuery.parse("cap>1")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown field 'cap'");
+        assertThatThrownBy(() -> QuoteQuery.parse("price>abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> QuoteQuery.parse("price")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CryptoCurrency createCryptoCurrency(Long id, String name, String symbol, Integer rank, Double price,
+                                                Double marketCap, Double percentChange7d) {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(name);
+        crypto.setSymbol(symbol);
+        crypto.setCmcRank(rank);
+
+        Quote usdQuote = new Quote();
+        usdQuote.setPrice(price);
+        usdQuote.setMarketCap(marketCap);
+        usdQuote.setPercentChange7d(percentChange7d);
+        Map<String, Quote> quoteMap = new HashMap<>();
+        quoteMap.put("USD", usdQuote);
+        crypto.setQuote(quoteMap);
+        return crypto;
+    }
+}
@@ -0,0 +1,112 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshotStore;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.metrics.CoinMarketCapMetrics;
+import com.cuius.mcpserver.service.ResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@DisplayName("ResponseCache Tests")
+class ResponseCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should render once per tool, arguments and snapshot version and count hits and misses")
+    void testGet_KeyedByVersion() {
+        // Arrange
+        ResponseCache cache = new ResponseCache(10, new CoinMarketCapMetrics(registry), new CryptoSnapshotStore());
+
+        // Act
+        String first = cache.get("getTopCryptos", "10", 1L, () -> render("top 10"));
+        String second = cache.get("getTopCryptos", "10", 1L, () -> render("top 10"));
+        cache.get("getTopCryptos", "5", 1L, () -> render("top 5"));
+        cache.get("getTopCryptos", "10", 2L, () -> render("top 10 v2"));
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(renders).hasValue(3);
+        assertThat(registry.get("mcp.response.cache").tags("tool", "getTopCryptos", "result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("mcp.response.cache").tags("tool", "getTopCryptos", "result", "miss").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void testGet_LruEviction() {
+        // Arrange
+        ResponseCache cache = new ResponseCache(2, CoinMarketCapMetrics.noop(), new CryptoSnapshotStore());
+        cache.get("tool", "a", 1L, () -> render("a"));
+        cache.get("tool", "b", 1L, () -> render("b"));
+
+        // Act
+        cache.get("tool", "a", 1L, () -> render("a"));
+        cache.get("tool", "c", 1L, () -> render("c"));
+        cache.get("tool", "a", 1L, () -> render("a"));
+        cache.get("tool", "b", 1L, () -> render("b"));
+
+        // Assert
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(renders).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Should drop every entry when a snapshot is published and ignore renders of older versions")
+    void testInvalidateOnPublish() {
+        // Arrange
+        CryptoSnapshotStore store = new CryptoSnapshotStore();
+        ResponseCache cache = new ResponseCache(10, CoinMarketCapMetrics.noop(), store);
+        cache.get("tool", "a", 0L, () -> render("a"));
+
+        // Act
+        store.publish(List.of(crypto()));
+        int afterPublish = cache.size();
+        cache.get("tool", "a", 0L, () -> render("stale"));
+
+        // Assert
+        assertThat(afterPublish).isZero();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should always render when disabled")
+    void testDisabled() {
+        ResponseCache cache = new ResponseCache(0, CoinMarketCapMetrics.noop(), new CryptoSnapshotStore());
+
+        cache.get("tool", "a", 1L, () -> render("a"));
+        cache.get("tool", "a", 1L, () -> render("a"));
+
+        assertThat(renders).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private String render(String value) {
+        renders.incrementAndGet();
+        return new String(value);
+    }
+
+    private CryptoCurrency crypto() {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(1L);
+        crypto.setName("Bitcoin");
+        crypto.setSymbol("BTC");
+        crypto.setCmcRank(1);
+        return crypto;
+    }
+}
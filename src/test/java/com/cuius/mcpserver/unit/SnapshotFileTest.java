@@ -0,0 +1,171 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.CryptoSnapshot;
+import com.cuius.mcpserver.cache.SnapshotFile;
+import com.cuius.mcpserver.dto.CryptoCurrency;
+import com.cuius.mcpserver.dto.Quote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+@DisplayName("SnapshotFile Tests")
+class SnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should round-trip every column, missing values and indexes")
+    void testRoundTrip() throws IOException {
+        // Arrange
+        CryptoCurrency noQuote = createCryptoCurrency(null, "Ünïcode ☃", "btc", null, null);
+        CryptoCurrency ethereum = createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0);
+        ethereum.setLastUpdated(LocalDateTime.of(2024, 1, 1, 12, 0));
+        ethereum.setTags(List.of("smart-contracts", "ethereum-ecosystem"));
+        CryptoSnapshot snapshot = CryptoSnapshot.of(7L, List.of(
+                ethereum,
+                createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0),
+                noQuote
+        ));
+        Path file = tempDir.resolve("nested/listings.snapshot");
+
+        // Act
+        SnapshotFile.write(snapshot, file);
+        CryptoSnapshot restored = SnapshotFile.read(file);
+
+        // Assert
+        assertThat(restored.getVersion()).isEqualTo(7L);
+        assertThat(restored.getCreatedAt().toEpochMilli()).isEqualTo(snapshot.getCreatedAt().toEpochMilli());
+        assertThat(restored.size()).isEqualTo(3);
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertThat(restored.getId(i)).isEqualTo(snapshot.getId(i));
+            assertThat(restored.getLastUpdated(i)).isEqualTo(snapshot.getLastUpdated(i));
+            assertThat(restored.getName(i)).isEqualTo(snapshot.getName(i));
+            assertThat(restored.getSymbol(i)).isEqualTo(snapshot.getSymbol(i));
+            assertThat(restored.getRank(i)).isEqualTo(snapshot.getRank(i));
+            assertThat(restored.getMaxSupply(i)).isEqualTo(snapshot.getMaxSupply(i));
+            assertThat(restored.getQuotes().hasQuote(i)).isEqualTo(snapshot.getQuotes().hasQuote(i));
+            assertThat(restored.getQuotes().price(i)).isEqualTo(snapshot.getQuotes().price(i));
+            assertThat(restored.getQuotes().percentChange24h(i)).isEqualTo(snapshot.getQuotes().percentChange24h(i));
+            assertThat(restored.getTags(i)).isEqualTo(snapshot.getTags(i));
+        }
+        assertThat(restored.getName(2)).isEqualTo("Ünïcode ☃");
+        assertThat(restored.getRank(2)).isEqualTo(CryptoSnapshot.NO_RANK);
+        assertThat(restored.getId(2)).isEqualTo(CryptoSnapshot.NO_ID);
+        assertThat(restored.getLastUpdated(1)).isEqualTo(ethereum.getLastUpdated().toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertThat(restored.getLastUpdated(2)).isEqualTo(CryptoSnapshot.NO_TIMESTAMP);
+        assertThat(restored.getQuotes().price(2)).isNaN();
+        assertThat(restored.findBySymbol("BTC")).containsExactly(0, 2);
+        assertThat(restored.searchByName("ereum", 10)).containsExactly(1);
+        assertThat(restored.getTags(1)).containsExactly("smart-contracts", "ethereum-ecosystem");
+        assertThat(restored.getTagIndex().count("ethereum-ecosystem")).isEqualTo(1);
+        try (var files = Files.list(file.getParent())) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip the quotes of every convert currency")
+    void testRoundTrip_Currencies() throws IOException {
+        // Arrange
+        CryptoCurrency bitcoin = createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0);
+        Quote btcQuote = new Quote();
+        btcQuote.setPrice(1.0);
+        bitcoin.getQuote().put("BTC", btcQuote);
+        CryptoCurrency ethereum = createCryptoCurrency(2L, "Ethereum", "ETH", 2, 3000.0);
+        CryptoSnapshot snapshot = CryptoSnapshot.of(4L, List.of(bitcoin, ethereum));
+        Path file = tempDir.resolve("currencies.snapshot");
+
+        // Act
+        SnapshotFile.write(snapshot, file);
+        CryptoSnapshot restored = SnapshotFile.read(file);
+
+        // Assert
+        assertThat(restored.getCurrencies()).containsExactlyElementsOf(snapshot.getCurrencies());
+        assertThat(restored.getDefaultCurrency()).isEqualTo("USD");
+        assertThat(restored.getQuotes("USD").price(1)).isEqualTo(3000.0);
+        assertThat(restored.getQuotes("BTC").price(0)).isEqualTo(1.0);
+        assertThat(restored.getQuotes("BTC").hasQuote(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should round-trip an empty snapshot")
+    void testRoundTrip_Empty() throws IOException {
+        Path file = tempDir.resolve("empty.snapshot");
+
+        SnapshotFile.write(CryptoSnapshot.of(3L, List.of()), file);
+
+        assertThat(SnapshotFile.read(file).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject truncated and foreign files")
+    void testRead_CorruptFile() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("listings.snapshot");
+        SnapshotFile.write(CryptoSnapshot.of(1L, List.of(createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0))), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = Files.write(tempDir.resolve("truncated.snapshot"), Arrays.copyOf(bytes, bytes.length - 3));
+        Path foreign = Files.writeString(tempDir.resolve("foreign.snapshot"), "{\"data\": []}");
+
+        // Act & Assert
+        assertThatThrownBy(() -> SnapshotFile.read(truncated)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> SnapshotFile.read(foreign)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject corrupt string lengths and tag counts before allocating")
+    void testRead_CorruptLengths() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("listings.snapshot");
+        SnapshotFile.write(CryptoSnapshot.of(1L, List.of(createCryptoCurrency(1L, "Bitcoin", "BTC", 1, 50000.0))), file);
+        byte[] bytes = Files.readAllBytes(file);
+        // The file ends with the name "Bitcoin", the symbol "BTC" and a tag count of 0, each length-prefixed.
+        byte[] nameLength = bytes.clone();
+        ByteBuffer.wrap(nameLength).putInt(bytes.length - 4 - (4 + 3) - (4 + 7), Integer.MAX_VALUE);
+        byte[] tagCount = bytes.clone();
+        ByteBuffer.wrap(tagCount).putInt(bytes.length - 4, Integer.MAX_VALUE);
+        Path corruptName = Files.write(tempDir.resolve("name.snapshot"), nameLength);
+        Path corruptTags = Files.write(tempDir.resolve("tags.snapshot"), tagCount);
+
+        // Act & Assert
+        assertThatThrownBy(() -> SnapshotFile.read(corruptName)).isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid string length");
+        assertThatThrownBy(() -> SnapshotFile.read(corruptTags)).isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid tag count");
+    }
+
+    private CryptoCurrency createCryptoCurrency(Long id, String name, String symbol, Integer rank, Double price) {
+        CryptoCurrency crypto = new CryptoCurrency();
+        crypto.setId(id);
+        crypto.setName(name);
+        crypto.setSymbol(symbol);
+        crypto.setCmcRank(rank);
+        crypto.setCirculatingSupply(19000000.0);
+        if (price != null) {
+            Quote usdQuote = new Quote();
+            usdQuote.setPrice(price);
+            usdQuote.setPercentChange24h(2.5);
+            Map<String, Quote> quoteMap = new HashMap<>();
+            quoteMap.put("USD", usdQuote);
+            crypto.setQuote(quoteMap);
+        }
+        return crypto;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.cache.TagIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+@DisplayName("TagIndex Tests")
+class TagIndexTest {
+
+    private static final String[] TAGS = {"defi", "ethereum-ecosystem", "solana-ecosystem", "meme", "pow"};
+
+    @Test
+    @DisplayName("Should intersect AND groups and union OR groups")
+    void testMatch() {
+        // Arrange
+        TagIndex index = TagIndex.build(new String[][]{
+                {"pow"},
+                {"defi", "ethereum-ecosystem"},
+                {"defi", "solana-ecosystem"},
+                {},
+                {"meme", "ethereum-ecosystem"}
+        });
+
+        // Act & Assert
+        assertThat(index.match(TagIndex.parse("defi and ethereum-ecosystem")).stream()).containsExactly(1);
+        assertThat(index.match(TagIndex.parse("DeFi & Solana-Ecosystem | pow")).stream()).containsExactly(0, 2);
+        assertThat(index.match(TagIndex.parse("ethereum-ecosystem, meme or defi")).stream()).containsExactly(1, 2, 4);
+        assertThat(index.match(TagIndex.parse("defi and unknown")).isEmpty()).isTrue();
+        assertThat(index.count("ETHEREUM-ECOSYSTEM")).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.mostCommon(3)).containsExactly("defi", "ethereum-ecosystem", "meme");
+    }
+
+    @Test
+    @DisplayName("Should match a per-coin scan for random expressions")
+    void testMatch_MatchesScan() {
+        // Arrange
+        Random random = new Random(42L);
+        String[][] tags = new String[1000][];
+        for (int ordinal = 0; ordinal < tags.length; ordinal++) {
+            List<String> coinTags = new ArrayList<>();
+            for (String tag : TAGS) {
+                if (random.nextInt(3) == 0) {
+                    coinTags.add(tag);
+                }
+            }
+            tags[ordinal] = coinTags.toArray(new String[0]);
+        }
+        TagIndex index = TagIndex.build(tags);
+
+        for (int i = 0; i < 200; i++) {
+            String first = TAGS[random.nextInt(TAGS.length)];
+            String second = TAGS[random.nextInt(TAGS.length)];
+            String third = TAGS[random.nextInt(TAGS.length)];
+
+            // Act
+            List<Integer> matches = index.match(TagIndex.parse(first + " and " + second + " or " + third)).stream().boxed().toList();
+
+            // Assert
+            List<Integer> expected = new ArrayList<>();
+            for (int ordinal = 0; ordinal < tags.length; ordinal++) {
+                List<String> coinTags = List.of(tags[ordinal]);
+                if (coinTags.contains(first) && coinTags.contains(second) || coinTags.contains(third)) {
+                    expected.add(ordinal);
+                }
+            }
+            assertThat(matches).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should normalize and describe expressions and reject empty tags")
+    void testParse() {
+        assertThat(TagIndex.describe(TagIndex.parse(" DeFi AND defi, Meme OR pow "))).isEqualTo("defi AND meme OR pow");
+
+        assertThatThrownBy(() -> TagIndex.parse("defi,,meme")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("empty tag");
+        assertThatThrownBy(() -> TagIndex.parse(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.metrics.TimedToolCallback;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("TimedToolCallback Tests")
+class TimedToolCallbackTest {
+
+    private SimpleMeterRegistry registry;
+    private ToolCallback delegate;
+    private ToolCallback timed;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        delegate = mock(ToolCallback.class);
+        when(delegate.getToolDefinition()).thenReturn(ToolDefinition.builder()
+                .name("getTopCryptos")
+                .description("Returns the top N cryptocurrencies")
+                .inputSchema("{}")
+                .build());
+
+        ToolCallback[] callbacks = TimedToolCallback.wrap(ToolCallbackProvider.from(delegate), registry).getToolCallbacks();
+        assertThat(callbacks).hasSize(1);
+        timed = callbacks[0];
+    }
+
+    @Test
+    @DisplayName("Should delegate the call and record a successful timing")
+    void testCall_Success() {
+        // Arrange
+        when(delegate.call("{}")).thenReturn("Top 1 Cryptocurrencies");
+
+        // Act
+        String result = timed.call("{}");
+
+        // Assert
+        assertThat(result).isEqualTo("Top 1 Cryptocurrencies");
+        assertThat(timed.getToolDefinition().name()).isEqualTo("getTopCryptos");
+        assertThat(timer("success").count()).isEqualTo(1);
+        assertThat(timer("error").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should record an error timing and rethrow when the tool fails")
+    void testCall_Error() {
+        // Arrange
+        when(delegate.call("{}")).thenThrow(new IllegalStateException("boom"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> timed.call("{}")).isInstanceOf(IllegalStateException.class);
+        assertThat(timer("error").count()).isEqualTo(1);
+        assertThat(timer("success").count()).isZero();
+    }
+
+    private Timer timer(String outcome) {
+        return registry.get("mcp.tool.calls").tag("tool", "getTopCryptos").tag("outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,69 @@
+package com.cuius.mcpserver.unit;
+
+import com.cuius.mcpserver.config.VirtualThreadToolExecution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@DisplayName("VirtualThreadToolExecution Tests")
+class VirtualThreadToolExecutionTest {
+
+    private static final String VIRTUAL_THREADS = "reactor.schedulers.defaultBoundedElasticOnVirtualThreads";
+    private static final String MAX_CONCURRENCY = "reactor.schedulers.defaultBoundedElasticSize";
+
+    private final VirtualThreadToolExecution postProcessor = new VirtualThreadToolExecution();
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(VIRTUAL_THREADS);
+        System.clearProperty(MAX_CONCURRENCY);
+    }
+
+    @Test
+    @DisplayName("Should leave the scheduler alone when virtual threads are disabled")
+    void testDisabled() {
+        // Act
+        postProcessor.postProcessEnvironment(new MockEnvironment(), new SpringApplication());
+
+        // Assert
+        assertThat(System.getProperty(VIRTUAL_THREADS)).isNull();
+        assertThat(System.getProperty(MAX_CONCURRENCY)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should switch the bounded-elastic scheduler to capped virtual threads")
+    void testEnabled() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("coinmarketcap.tools.virtual-threads.enabled", "true")
+                .withProperty("coinmarketcap.tools.virtual-threads.max-concurrency", "64");
+
+        // Act
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        // Assert
+        assertThat(System.getProperty(VIRTUAL_THREADS)).isEqualTo("true");
+        assertThat(System.getProperty(MAX_CONCURRENCY)).isEqualTo("64");
+    }
+
+    @Test
+    @DisplayName("Should not override an explicit system property")
+    void testExplicitSystemPropertyWins() {
+        // Arrange
+        System.setProperty(MAX_CONCURRENCY, "8");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("coinmarketcap.tools.virtual-threads.enabled", "true");
+
+        // Act
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        // Assert
+        assertThat(System.getProperty(MAX_CONCURRENCY)).isEqualTo("8");
+    }
+}